@@ -0,0 +1,106 @@
+package org.example.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.example.config.DecodeProperties;
+import org.example.config.SmileProperties;
+import org.example.data.User;
+import org.example.stream.UserNdjsonDecoder;
+import org.example.stream.UserSmileDecoder;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class ExtractUsersBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    private int users;
+
+    private UserNdjsonDecoder userNdjsonDecoder;
+    private UserSmileDecoder userSmileDecoder;
+    private byte[] ndjson;
+    private byte[] smile;
+
+    @Setup
+    public void setUp() throws IOException {
+        var objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        var smileConverter = new MappingJackson2SmileHttpMessageConverter();
+        userNdjsonDecoder = new UserNdjsonDecoder(objectMapper,
+                new DecodeProperties(true, 0, DataSize.ofKilobytes(256), 0));
+        userSmileDecoder = new UserSmileDecoder(smileConverter, new SmileProperties(true, DataSize.ofMegabytes(1)));
+        ndjson = encodeNdjson(objectMapper);
+        smile = encodeSmileFrames(smileConverter.getObjectMapper());
+    }
+
+    @TearDown
+    public void tearDown() {
+        userNdjsonDecoder.close();
+    }
+
+    @Benchmark
+    public List<User> decodeSequential() throws IOException {
+        return userNdjsonDecoder.decodeSequential(new ByteArrayInputStream(ndjson));
+    }
+
+    @Benchmark
+    public List<User> decodeParallel() throws IOException {
+        return userNdjsonDecoder.decodeParallel(new ByteArrayInputStream(ndjson));
+    }
+
+    @Benchmark
+    public List<User> decodeSmile() throws IOException {
+        return userSmileDecoder.decode(new ByteArrayInputStream(smile));
+    }
+
+    @Benchmark
+    public long scan(Blackhole blackhole) throws IOException {
+        return userNdjsonDecoder.scan(new ByteArrayInputStream(ndjson), user -> blackhole.consume(user.age()));
+    }
+
+    private byte[] encodeNdjson(ObjectMapper objectMapper) throws IOException {
+        var out = new ByteArrayOutputStream();
+        for (int i = 1; i <= users; i++) {
+            out.write(objectMapper.writeValueAsBytes(user(i)));
+            out.write('\n');
+        }
+        return out.toByteArray();
+    }
+
+    // the framing of ProducerService's UserSmileWriter: a varint length, then one user without the Smile header
+    private byte[] encodeSmileFrames(ObjectMapper smileMapper) throws IOException {
+        var frameMapper = smileMapper.copyWith(((SmileFactory) smileMapper.getFactory()).copy()
+                .disable(SmileGenerator.Feature.WRITE_HEADER)
+                .disable(SmileGenerator.Feature.CHECK_SHARED_NAMES)
+                .disable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES));
+        var out = new ByteArrayOutputStream();
+        for (int i = 1; i <= users; i++) {
+            byte[] frame = frameMapper.writeValueAsBytes(user(i));
+            int length = frame.length;
+            while ((length & ~0x7F) != 0) {
+                out.write((length & 0x7F) | 0x80);
+                length >>>= 7;
+            }
+            out.write(length);
+            out.write(frame);
+        }
+        return out.toByteArray();
+    }
+
+    private static User user(int i) {
+        return new User((long) i, "user" + i, i % 100);
+    }
+}
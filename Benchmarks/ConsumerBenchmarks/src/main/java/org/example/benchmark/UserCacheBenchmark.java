@@ -0,0 +1,127 @@
+package org.example.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.config.CacheProperties;
+import org.example.config.SingleFlightProperties;
+import org.example.data.User;
+import org.example.response.ResultResponse;
+import org.example.service.UserCache;
+import org.example.service.UserRemoteService;
+import org.example.service.UserRetrieveCollapser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserCacheBenchmark {
+    private static final int KEYS = 100_000;
+    private static final int SAMPLES = 1 << 20;
+
+    @Param({"true", "false"})
+    private boolean cached;
+    @Param({"0.8", "1.2"})
+    private double skew;
+    @Param({"0", "10000"})
+    private long remoteTokens;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserCache userCache;
+    private long[] ids;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next = new Random().nextInt(SAMPLES);
+    }
+
+    @Setup
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        var collapser = new UserRetrieveCollapser(new RemoteService(remoteTokens),
+                new SingleFlightProperties(true, 1024), meterRegistry);
+        // the revalidation client is never called: entries are not revalidated during a run
+        userCache = new UserCache(collapser, null, new ObjectMapper(), new MappingJackson2SmileHttpMessageConverter(),
+                new CacheProperties(cached, DataSize.ofMegabytes(2), Duration.ofHours(1), Duration.ofHours(1)),
+                meterRegistry);
+        ids = zipf(skew);
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (cached) {
+            double hits = meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count();
+            double misses = meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count();
+            System.out.printf("%nhit ratio %.3f%n", hits / (hits + misses));
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public ResponseEntity<ResultResponse<User>> retrieveUser(Cursor cursor) {
+        return userCache.retrieveUser(ids[cursor.next++ & (SAMPLES - 1)]);
+    }
+
+    private static long[] zipf(double skew) {
+        var cdf = new double[KEYS];
+        double sum = 0;
+        for (int rank = 1; rank <= KEYS; rank++) {
+            sum += 1 / Math.pow(rank, skew);
+            cdf[rank - 1] = sum;
+        }
+        var random = new Random(42);
+        var ids = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            int rank = Arrays.binarySearch(cdf, random.nextDouble() * sum);
+            ids[i] = (rank < 0 ? -rank - 1 : rank) + 1;
+        }
+        return ids;
+    }
+
+    private record RemoteService(long tokens) implements UserRemoteService {
+        @Override
+        public ResponseEntity<ResultResponse<User>> retrieveUser(Long id) {
+            Blackhole.consumeCPU(tokens);
+            return ResponseEntity.ok().eTag("\"" + id + "-0\"")
+                    .body(ResultResponse.success(new User(id, "user" + id, (int) (id % 100))));
+        }
+
+        @Override
+        public ResponseEntity<ResultResponse<User>> createUser(User user) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ResponseEntity<ResultResponse<List<ResultResponse<User>>>> createUsers(List<User> users) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ResponseEntity<ResultResponse<User>> updateUser(User user) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ResponseEntity<ResultResponse<Void>> deleteUser(Long id) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Response extractUsers() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.benchmark;
+
+import feign.Client;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.example.service.UserRemoteMetrics;
+import org.example.service.UserRemoteService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserRemoteMetricsBenchmark {
+    private static final byte[] BODY = """
+            {"success":true,"code":200,"msg":"Success","data":{"id":1,"name":"test","age":18}}"""
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Param({"true", "false"})
+    private boolean metered;
+
+    private Client client;
+    private Request request;
+    private Request.Options options;
+
+    @Setup
+    public void setUp() {
+        Client remote = (request, options) -> Response.builder()
+                .request(request)
+                .status(200)
+                .headers(Map.of())
+                .body(new ByteArrayInputStream(BODY), BODY.length)
+                .build();
+        var meterRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        client = metered ? new UserRemoteMetrics(meterRegistry).instrument(remote) : remote;
+        var template = new RequestTemplate();
+        template.methodMetadata(new SpringMvcContract().parseAndValidateMetadata(UserRemoteService.class).stream()
+                .filter(metadata -> metadata.method().getName().equals("retrieveUser"))
+                .findFirst()
+                .orElseThrow());
+        request = Request.create(Request.HttpMethod.GET, "http://user-service/v1/user?id=1", Map.of(), null,
+                StandardCharsets.UTF_8, template);
+        options = new Request.Options();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int execute() throws IOException {
+        try (var response = client.execute(request, options)) {
+            return response.body().asInputStream().readAllBytes().length;
+        }
+    }
+}
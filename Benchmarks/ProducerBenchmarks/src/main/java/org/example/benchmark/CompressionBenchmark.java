@@ -0,0 +1,60 @@
+package org.example.benchmark;
+
+import org.example.config.CompressionProperties;
+import org.example.config.ExtractProperties;
+import org.example.config.UserStoreProperties;
+import org.example.data.User;
+import org.example.store.UserStore;
+import org.example.stream.ResponseCompression;
+import org.example.stream.UserNdjsonWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompressionBenchmark {
+    private static final int FLUSH_BYTES = 65536;
+
+    @Param({"identity", "gzip", "zstd"})
+    private String encoding;
+    @Param({"100000"})
+    private int users;
+
+    private ResponseCompression responseCompression;
+    private byte[] export;
+
+    @Setup
+    public void setUp() throws IOException {
+        var userStore = new UserStore(new UserStoreProperties(64, 1024));
+        for (int i = 1; i <= users; i++) {
+            userStore.create(new User(null, "user" + i, i % 100));
+        }
+        var out = new ByteArrayOutputStream();
+        new UserNdjsonWriter(Jackson2ObjectMapperBuilder.json().build(), new ExtractProperties(1000, FLUSH_BYTES))
+                .write(userStore.cursor(), out);
+        export = out.toByteArray();
+        responseCompression = new ResponseCompression(new CompressionProperties(true, DataSize.ofKilobytes(8), 6, 3));
+    }
+
+    @Benchmark
+    public long compress() throws IOException {
+        var sink = new DiscardingOutputStream();
+        try (var out = responseCompression.compress(sink, "identity".equals(encoding) ? null : encoding, () -> {
+        })) {
+            for (int offset = 0; offset < export.length; offset += FLUSH_BYTES) {
+                out.write(export, offset, Math.min(FLUSH_BYTES, export.length - offset));
+                out.flush();
+            }
+        }
+        return sink.count();
+    }
+}
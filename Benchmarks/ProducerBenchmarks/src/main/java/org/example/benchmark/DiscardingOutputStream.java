@@ -0,0 +1,24 @@
+package org.example.benchmark;
+
+import java.io.OutputStream;
+
+/**
+ * Drops everything written to it but counts the bytes, so the writes cannot be optimized away.
+ */
+final class DiscardingOutputStream extends OutputStream {
+    private long count;
+
+    @Override
+    public void write(int b) {
+        count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        count += len;
+    }
+
+    long count() {
+        return count;
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.config.JacksonConfiguration;
+import org.example.data.User;
+import org.example.response.ResultResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EnvelopeBenchmark {
+    private static final TypeReference<ResultResponse<User>> USER_RESPONSE = new TypeReference<>() {
+    };
+    private static final TypeReference<ResultResponse<List<User>>> USER_LIST_RESPONSE = new TypeReference<>() {
+    };
+
+    @State(Scope.Benchmark)
+    public static class Codec {
+        @Param({"json", "smile"})
+        private String format;
+        @Param({"pre-encoded", "bean"})
+        private String envelope;
+
+        private ObjectMapper objectMapper;
+        private ResultResponse<User> user;
+        private byte[] encodedUser;
+
+        @Setup
+        public void setUp() throws IOException {
+            var builder = "smile".equals(format) ? Jackson2ObjectMapperBuilder.smile() : Jackson2ObjectMapperBuilder.json();
+            if ("pre-encoded".equals(envelope)) {
+                builder.modulesToInstall(new JacksonConfiguration().resultResponseModule());
+            }
+            objectMapper = builder.build();
+            user = ResultResponse.success(new User(1L, "user1", 18));
+            encodedUser = objectMapper.writeValueAsBytes(user);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class UserList {
+        @Param({"10", "1000", "100000"})
+        private int users;
+
+        private ResultResponse<List<User>> userList;
+        private byte[] encodedUserList;
+
+        @Setup
+        public void setUp(Codec codec) throws IOException {
+            var list = new ArrayList<User>(users);
+            for (int i = 1; i <= users; i++) {
+                list.add(new User((long) i, "user" + i, i % 100));
+            }
+            userList = ResultResponse.success(list);
+            encodedUserList = codec.objectMapper.writeValueAsBytes(userList);
+        }
+    }
+
+    @Benchmark
+    public byte[] encodeUser(Codec codec) throws IOException {
+        return codec.objectMapper.writeValueAsBytes(codec.user);
+    }
+
+    @Benchmark
+    public ResultResponse<User> decodeUser(Codec codec) throws IOException {
+        return codec.objectMapper.readValue(codec.encodedUser, USER_RESPONSE);
+    }
+
+    @Benchmark
+    public byte[] encodeUserList(Codec codec, UserList userList) throws IOException {
+        return codec.objectMapper.writeValueAsBytes(userList.userList);
+    }
+
+    @Benchmark
+    public ResultResponse<List<User>> decodeUserList(Codec codec, UserList userList) throws IOException {
+        return codec.objectMapper.readValue(userList.encodedUserList, USER_LIST_RESPONSE);
+    }
+}
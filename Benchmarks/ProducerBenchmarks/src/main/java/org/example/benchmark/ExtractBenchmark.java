@@ -0,0 +1,65 @@
+package org.example.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.config.ExtractProperties;
+import org.example.config.SnapshotProperties;
+import org.example.config.UserStoreProperties;
+import org.example.data.User;
+import org.example.store.UserStore;
+import org.example.stream.UserNdjsonWriter;
+import org.example.stream.UserSmileWriter;
+import org.example.stream.UserSnapshotCache;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class ExtractBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    private int users;
+
+    private UserStore userStore;
+    private UserNdjsonWriter userNdjsonWriter;
+    private UserSmileWriter userSmileWriter;
+    private UserSnapshotCache userSnapshotCache;
+
+    @Setup
+    public void setUp() {
+        userStore = new UserStore(new UserStoreProperties(64, 1024));
+        for (int i = 1; i <= users; i++) {
+            userStore.create(new User(null, "user" + i, i % 100));
+        }
+        var extractProperties = new ExtractProperties(1000, 65536);
+        userNdjsonWriter = new UserNdjsonWriter(Jackson2ObjectMapperBuilder.json().build(), extractProperties);
+        userSmileWriter = new UserSmileWriter(new MappingJackson2SmileHttpMessageConverter(), extractProperties);
+        userSnapshotCache = new UserSnapshotCache(userStore, userNdjsonWriter,
+                new SnapshotProperties(true, DataSize.ofMegabytes(1), DataSize.ofMegabytes(512)),
+                new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public long ndjson() throws IOException {
+        return userNdjsonWriter.write(userStore.cursor(), new DiscardingOutputStream());
+    }
+
+    @Benchmark
+    public long smile() throws IOException {
+        return userSmileWriter.write(userStore.cursor(), new DiscardingOutputStream());
+    }
+
+    @Benchmark
+    public long snapshot() throws IOException {
+        var out = new DiscardingOutputStream();
+        userSnapshotCache.write(out);
+        return out.count();
+    }
+}
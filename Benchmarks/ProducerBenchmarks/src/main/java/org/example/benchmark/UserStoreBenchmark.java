@@ -0,0 +1,56 @@
+package org.example.benchmark;
+
+import org.example.config.UserStoreProperties;
+import org.example.data.User;
+import org.example.store.UserStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class UserStoreBenchmark {
+    @Param({"1000000", "10000000"})
+    private int users;
+
+    private UserStore userStore;
+
+    @Setup
+    public void setUp() {
+        long before = usedHeap();
+        userStore = new UserStore(new UserStoreProperties(64, 1024));
+        for (int i = 1; i <= users; i++) {
+            userStore.create(new User(null, "user" + i, i % 100));
+        }
+        long retained = usedHeap() - before;
+        System.out.printf("%nstore of %d users retains %d MB, %d bytes per user%n",
+                users, retained >> 20, retained / users);
+    }
+
+    @Benchmark
+    public User find() {
+        return userStore.find(randomId());
+    }
+
+    @Benchmark
+    public User update() {
+        return userStore.update(new User(randomId(), null, ThreadLocalRandom.current().nextInt(100)));
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(users) + 1;
+    }
+
+    private static long usedHeap() {
+        var runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,8 @@
+package org.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "consumer.async")
+public record AsyncProperties(@DefaultValue("4") int threads) {
+}
@@ -0,0 +1,14 @@
+package org.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "consumer.batch")
+public record BatchProperties(@DefaultValue("false") boolean enabled,
+                              @DefaultValue("2ms") Duration window,
+                              @DefaultValue("256") int maxItems,
+                              @DefaultValue("4") int concurrency,
+                              @DefaultValue("4096") int queueCapacity) {
+}
@@ -0,0 +1,14 @@
+package org.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "consumer.cache")
+public record CacheProperties(@DefaultValue("false") boolean enabled,
+                              @DefaultValue("16MB") DataSize maxWeight,
+                              @DefaultValue("5s") Duration revalidateAfter,
+                              @DefaultValue("5m") Duration ttl) {
+}
@@ -0,0 +1,11 @@
+package org.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "consumer.deadline")
+public record DeadlineProperties(@DefaultValue("true") boolean enabled,
+                                 @DefaultValue("30s") Duration budget) {
+}
@@ -0,0 +1,12 @@
+package org.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+@ConfigurationProperties(prefix = "consumer.decode")
+public record DecodeProperties(@DefaultValue("true") boolean parallel,
+                               @DefaultValue("0") int parallelism,
+                               @DefaultValue("256KB") DataSize chunkSize,
+                               @DefaultValue("0") int maxInFlightChunks) {
+}
@@ -0,0 +1,15 @@
+package org.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "consumer.hedge")
+public record HedgeProperties(@DefaultValue("false") boolean enabled,
+                              @DefaultValue("0.95") double percentile,
+                              @DefaultValue("5ms") Duration minDelay,
+                              @DefaultValue("0.1") double budget,
+                              @DefaultValue("10") int burst,
+                              @DefaultValue("64") int maxAttempts) {
+}
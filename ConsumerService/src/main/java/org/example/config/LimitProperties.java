@@ -0,0 +1,26 @@
+package org.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "consumer.limit")
+public record LimitProperties(@DefaultValue("false") boolean enabled,
+                              Bulkhead single,
+                              Bulkhead export) {
+    public LimitProperties {
+        if (single == null) {
+            single = new Bulkhead(20, 4, 100);
+        }
+        if (export == null) {
+            export = new Bulkhead(4, 1, 16);
+        }
+    }
+
+    public record Bulkhead(int initialLimit, int minLimit, int maxLimit) {
+        public Bulkhead {
+            minLimit = Math.max(1, minLimit);
+            maxLimit = Math.max(minLimit, maxLimit);
+            initialLimit = Math.min(maxLimit, Math.max(minLimit, initialLimit));
+        }
+    }
+}
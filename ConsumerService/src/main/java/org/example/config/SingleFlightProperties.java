@@ -0,0 +1,9 @@
+package org.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "consumer.single-flight")
+public record SingleFlightProperties(@DefaultValue("true") boolean enabled,
+                                     @DefaultValue("1024") int maxInFlight) {
+}
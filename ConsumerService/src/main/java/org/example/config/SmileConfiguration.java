@@ -0,0 +1,93 @@
+package org.example.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import feign.RequestInterceptor;
+import feign.Response;
+import feign.codec.Decoder;
+import feign.codec.EncodeException;
+import feign.codec.Encoder;
+import feign.optionals.OptionalDecoder;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.ResponseEntityDecoder;
+import org.springframework.cloud.openfeign.support.SpringDecoder;
+import org.springframework.cloud.openfeign.support.SpringEncoder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.util.Collection;
+
+@Configuration
+public class SmileConfiguration {
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    public static final MediaType APPLICATION_SMILE = MediaType.parseMediaType(APPLICATION_SMILE_VALUE);
+    private static final String ACCEPT_SMILE =
+            APPLICATION_SMILE_VALUE + ", " + MediaType.APPLICATION_JSON_VALUE + ";q=0.9";
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    public static RequestInterceptor acceptSmile() {
+        return template -> {
+            if (isJson(template.headers().get(HttpHeaders.ACCEPT))) {
+                template.removeHeader(HttpHeaders.ACCEPT);
+                template.header(HttpHeaders.ACCEPT, ACCEPT_SMILE);
+            }
+        };
+    }
+
+    public static Encoder encoder(ObjectFactory<HttpMessageConverters> messageConverters,
+                                  MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter) {
+        var delegate = new SpringEncoder(messageConverters);
+        var objectMapper = smileHttpMessageConverter.getObjectMapper();
+        return (object, bodyType, template) -> {
+            if (object == null || !isJson(template.headers().get(HttpHeaders.CONTENT_TYPE))) {
+                delegate.encode(object, bodyType, template);
+                return;
+            }
+            byte[] body;
+            try {
+                body = objectMapper.writerFor(objectMapper.constructType(bodyType)).writeValueAsBytes(object);
+            } catch (JsonProcessingException e) {
+                throw new EncodeException("Could not write Smile request body", e);
+            }
+            template.removeHeader(HttpHeaders.CONTENT_TYPE);
+            template.header(HttpHeaders.CONTENT_TYPE, APPLICATION_SMILE_VALUE);
+            // SpringEncoder would attach a charset to this unknown type, which makes Feign treat the bytes as text
+            template.body(body, null);
+        };
+    }
+
+    public static Decoder decoder(ObjectFactory<HttpMessageConverters> messageConverters) {
+        var delegate = new OptionalDecoder(new ResponseEntityDecoder(new SpringDecoder(messageConverters)));
+        return (response, type) -> {
+            var decoded = delegate.decode(response, type);
+            if (decoded instanceof ResponseEntity<?> entity && isSmile(response)) {
+                var headers = new HttpHeaders();
+                headers.putAll(entity.getHeaders());
+                headers.remove(HttpHeaders.CONTENT_TYPE);
+                headers.remove(HttpHeaders.CONTENT_LENGTH);
+                return new ResponseEntity<>(entity.getBody(), headers, entity.getStatusCode());
+            }
+            return decoded;
+        };
+    }
+
+    public static boolean isSmile(Response response) {
+        var contentTypes = response.headers().get(HttpHeaders.CONTENT_TYPE);
+        return contentTypes != null && contentTypes.stream()
+                .anyMatch(contentType -> contentType.startsWith(APPLICATION_SMILE_VALUE));
+    }
+
+    private static boolean isJson(Collection<String> values) {
+        return values != null && values.stream().anyMatch(value -> value.startsWith(MediaType.APPLICATION_JSON_VALUE));
+    }
+}
@@ -0,0 +1,10 @@
+package org.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+@ConfigurationProperties(prefix = "consumer.smile")
+public record SmileProperties(@DefaultValue("false") boolean enabled,
+                              @DefaultValue("1MB") DataSize maxFrameSize) {
+}
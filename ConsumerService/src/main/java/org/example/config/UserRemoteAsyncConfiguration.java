@@ -0,0 +1,150 @@
+package org.example.config;
+
+import feign.AsyncClient;
+import feign.AsyncFeign;
+import feign.Request;
+import feign.Response;
+import feign.http2client.Http2Client;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.example.deadline.UpstreamDeadline;
+import org.example.service.UserRemoteAsyncService;
+import org.example.service.UserRemoteLimiter;
+import org.example.service.UserRemoteMetrics;
+import org.example.timing.UpstreamTiming;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.openfeign.FeignClientProperties;
+import org.springframework.cloud.openfeign.support.ResponseEntityDecoder;
+import org.springframework.cloud.openfeign.support.SpringDecoder;
+import org.springframework.cloud.openfeign.support.SpringEncoder;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.StringUtils;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class UserRemoteAsyncConfiguration {
+    private static final String CLIENT_NAME = "user-service";
+
+    // not a bean: any Executor bean would replace Spring Boot's applicationTaskExecutor
+    private final ExecutorService userServiceExecutor;
+
+    public UserRemoteAsyncConfiguration(AsyncProperties properties, Environment environment,
+                                        MeterRegistry meterRegistry) {
+        this.userServiceExecutor = Threading.VIRTUAL.isActive(environment)
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("user-service-", 1).factory())
+                : Executors.newFixedThreadPool(properties.threads(), new CustomizableThreadFactory("user-service-"));
+        // gauges only: ExecutorServiceMetrics#monitor would also time every task the client submits
+        new ExecutorServiceMetrics(userServiceExecutor, "user-service", List.of()).bindTo(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        userServiceExecutor.shutdownNow();
+    }
+
+    @Bean
+    public HttpClient userServiceJdkHttpClient(UserServiceTransportProperties transportProperties,
+                                               FeignClientProperties feignClientProperties) {
+        var options = options(feignClientProperties);
+        // must agree with the request options, otherwise feign's Http2Client builds a separate client per call site
+        return HttpClient.newBuilder()
+                .version(transportProperties.httpVersion())
+                .connectTimeout(Duration.ofMillis(options.connectTimeoutMillis()))
+                .followRedirects(options.isFollowRedirects() ? HttpClient.Redirect.ALWAYS : HttpClient.Redirect.NEVER)
+                .executor(userServiceExecutor)
+                .build();
+    }
+
+    @Bean
+    public UserRemoteAsyncService userRemoteAsyncService(FeignClientProperties feignClientProperties,
+                                                         ObjectFactory<HttpMessageConverters> messageConverters,
+                                                         HttpClient userServiceJdkHttpClient,
+                                                         SmileProperties smileProperties,
+                                                         MappingJackson2SmileHttpMessageConverter smileConverter,
+                                                         TimingProperties timingProperties,
+                                                         DeadlineProperties deadlineProperties,
+                                                         UserRemoteMetrics userRemoteMetrics,
+                                                         UserRemoteLimiter userRemoteLimiter,
+                                                         LoadBalancerClient loadBalancerClient) {
+        var config = feignClientProperties.getConfig().get(CLIENT_NAME);
+        var url = config == null ? null : config.getUrl();
+        AsyncClient<Object> client = new Http2Client(userServiceJdkHttpClient);
+        if (!StringUtils.hasText(url)) {
+            client = loadBalanced(client, loadBalancerClient);
+            url = "http://" + CLIENT_NAME;
+        }
+        // the decorators of the blocking client except the hedger, see UserServiceFeignConfiguration
+        client = UpstreamDeadline.instrumentAsync(userRemoteLimiter.instrumentAsync(UpstreamTiming.instrumentAsync(
+                userRemoteMetrics.instrumentAsync(client), CLIENT_NAME)), CLIENT_NAME);
+        var builder = AsyncFeign.builder()
+                .client(client)
+                .contract(new SpringMvcContract())
+                .encoder(new SpringEncoder(messageConverters))
+                .decoder(new ResponseEntityDecoder(new SpringDecoder(messageConverters)))
+                .options(options(feignClientProperties));
+        if (timingProperties.enabled()) {
+            builder.requestInterceptor(UpstreamTiming.propagateSampling());
+        }
+        if (deadlineProperties.enabled()) {
+            builder.requestInterceptor(UpstreamDeadline.propagateDeadline());
+        }
+        if (smileProperties.enabled()) {
+            builder.encoder(SmileConfiguration.encoder(messageConverters, smileConverter))
+                    .decoder(SmileConfiguration.decoder(messageConverters))
+                    .requestInterceptor(SmileConfiguration.acceptSmile());
+        }
+        return builder.target(UserRemoteAsyncService.class, url + "/v1");
+    }
+
+    // picks an instance per call like FeignBlockingLoadBalancerClient, which only wraps a blocking Client
+    private static AsyncClient<Object> loadBalanced(AsyncClient<Object> client, LoadBalancerClient loadBalancerClient) {
+        return (request, options, context) -> {
+            var uri = URI.create(request.url());
+            var instance = loadBalancerClient.choose(uri.getHost());
+            if (instance == null) {
+                return CompletableFuture.completedFuture(Response.builder()
+                        .request(request)
+                        .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                        .body("Load balancer does not contain an instance for the service " + uri.getHost(),
+                                StandardCharsets.UTF_8)
+                        .build());
+            }
+            var url = loadBalancerClient.reconstructURI(instance, uri).toString();
+            return client.execute(Request.create(request.httpMethod(), url, request.headers(), request.body(),
+                    request.charset(), request.requestTemplate()), options, context);
+        };
+    }
+
+    public static Request.Options options(FeignClientProperties feignClientProperties) {
+        var config = feignClientProperties.getConfig().get(CLIENT_NAME);
+        var defaults = new Request.Options();
+        if (config == null) {
+            return defaults;
+        }
+        return new Request.Options(
+                config.getConnectTimeout() != null ? config.getConnectTimeout() : defaults.connectTimeoutMillis(),
+                TimeUnit.MILLISECONDS,
+                config.getReadTimeout() != null ? config.getReadTimeout() : defaults.readTimeoutMillis(),
+                TimeUnit.MILLISECONDS,
+                config.isFollowRedirects() == null || config.isFollowRedirects());
+    }
+}
@@ -0,0 +1,109 @@
+package org.example.config;
+
+import feign.Client;
+import feign.RequestInterceptor;
+import feign.codec.Decoder;
+import feign.codec.Encoder;
+import feign.hc5.ApacheHttp5Client;
+import feign.http2client.Http2Client;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.example.deadline.UpstreamDeadline;
+import org.example.service.UserRemoteHedger;
+import org.example.service.UserRemoteLimiter;
+import org.example.service.UserRemoteMetrics;
+import org.example.stream.ContentDecoding;
+import org.example.timing.UpstreamTiming;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.cloud.openfeign.loadbalancer.FeignBlockingLoadBalancerClient;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.context.annotation.Lazy;
+
+import java.net.http.HttpClient;
+import java.util.List;
+
+public class UserServiceFeignConfiguration {
+    @Bean
+    public Client feignClient(UserServiceTransportProperties properties,
+                              ObjectProvider<CloseableHttpClient> apacheHttpClient,
+                              ObjectProvider<HttpClient> jdkHttpClient,
+                              UserRemoteMetrics userRemoteMetrics,
+                              UserRemoteLimiter userRemoteLimiter,
+                              UserRemoteHedger userRemoteHedger,
+                              LoadBalancerClient loadBalancerClient,
+                              LoadBalancerClientFactory loadBalancerClientFactory) {
+        var client = UpstreamDeadline.instrument(userRemoteLimiter.instrument(UpstreamTiming.instrument(
+                userRemoteMetrics.instrument(userRemoteHedger.instrument(switch (properties.type()) {
+                    case DEFAULT -> ContentDecoding.dropTransportEncoding(new Client.Default(null, null));
+                    case APACHE_HC5 -> new ApacheHttp5Client(apacheHttpClient.getObject());
+                    case JDK -> new Http2Client(jdkHttpClient.getObject());
+                })), "user-service")), "user-service");
+        // Spring Cloud OpenFeign unwraps it again when the client has a url
+        return new FeignBlockingLoadBalancerClient(client, loadBalancerClient, loadBalancerClientFactory, List.of());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "consumer.deadline.enabled", havingValue = "true", matchIfMissing = true)
+    public RequestInterceptor deadlineInterceptor() {
+        return UpstreamDeadline.propagateDeadline();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "server-timing.enabled", havingValue = "true", matchIfMissing = true)
+    public RequestInterceptor serverTimingSamplingInterceptor() {
+        return UpstreamTiming.propagateSampling();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "consumer.smile.enabled", havingValue = "true")
+    public Encoder feignEncoder(ObjectFactory<HttpMessageConverters> messageConverters,
+                                MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter) {
+        return SmileConfiguration.encoder(messageConverters, smileHttpMessageConverter);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "consumer.smile.enabled", havingValue = "true")
+    public Decoder feignDecoder(ObjectFactory<HttpMessageConverters> messageConverters) {
+        return SmileConfiguration.decoder(messageConverters);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "consumer.smile.enabled", havingValue = "true")
+    public RequestInterceptor acceptSmileInterceptor() {
+        return SmileConfiguration.acceptSmile();
+    }
+
+    @Bean
+    @Lazy
+    public CloseableHttpClient userServiceApacheHttpClient(UserServiceTransportProperties properties,
+                                                           MeterRegistry meterRegistry) {
+        var connectionConfig = ConnectionConfig.custom()
+                .setTimeToLive(TimeValue.of(properties.timeToLive()))
+                .setValidateAfterInactivity(TimeValue.of(properties.validateAfterInactivity()))
+                .build();
+        var connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(properties.maxConnections())
+                .setMaxConnPerRoute(properties.maxConnectionsPerRoute())
+                .setDefaultConnectionConfig(connectionConfig)
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "user-service").bindTo(meterRegistry);
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(properties.idleEviction()))
+                // responses are decompressed by the caller, see ContentDecoding
+                .disableContentCompression()
+                .build();
+    }
+}
@@ -0,0 +1,22 @@
+package org.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "spring.cloud.openfeign.client.config.user-service.transport")
+public record UserServiceTransportProperties(@DefaultValue("apache-hc5") Type type,
+                                             @DefaultValue("200") int maxConnections,
+                                             @DefaultValue("50") int maxConnectionsPerRoute,
+                                             @DefaultValue("30s") Duration idleEviction,
+                                             @DefaultValue("5m") Duration timeToLive,
+                                             @DefaultValue("2s") Duration validateAfterInactivity,
+                                             @DefaultValue("http-1-1") HttpClient.Version httpVersion) {
+    public enum Type {
+        DEFAULT,
+        APACHE_HC5,
+        JDK
+    }
+}
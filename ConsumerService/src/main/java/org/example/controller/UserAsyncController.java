@@ -0,0 +1,46 @@
+package org.example.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.data.User;
+import org.example.response.ResultResponse;
+import org.example.service.UserCache;
+import org.example.service.UserRemoteAsyncService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/v1/async")
+@Slf4j
+@RequiredArgsConstructor
+public class UserAsyncController {
+    private final UserRemoteAsyncService userRemoteAsyncService;
+    private final UserCache userCache;
+
+    @PostMapping(value = "user", consumes = {MediaType.APPLICATION_JSON_VALUE}, produces = {MediaType.APPLICATION_JSON_VALUE})
+    public CompletableFuture<ResponseEntity<ResultResponse<User>>> createUser() {
+        var user = User.builder().name("test").age(18).build();
+        return userRemoteAsyncService.createUser(user);
+    }
+
+    @GetMapping(value = "user", produces = {MediaType.APPLICATION_JSON_VALUE})
+    public CompletableFuture<ResponseEntity<ResultResponse<User>>> retrieveUser() {
+        return userRemoteAsyncService.retrieveUser(1L);
+    }
+
+    @PutMapping(value = "user", consumes = {MediaType.APPLICATION_JSON_VALUE}, produces = {MediaType.APPLICATION_JSON_VALUE})
+    public CompletableFuture<ResponseEntity<ResultResponse<User>>> updateUser() {
+        var user = User.builder().id(1L).build();
+        return userRemoteAsyncService.updateUser(user)
+                .whenComplete((response, e) -> userCache.invalidate(user.getId()));
+    }
+
+    @DeleteMapping(value = "user", produces = {MediaType.APPLICATION_JSON_VALUE})
+    public CompletableFuture<ResponseEntity<ResultResponse<Void>>> deleteUser() {
+        return userRemoteAsyncService.deleteUser(1L)
+                .whenComplete((response, e) -> userCache.invalidate(1L));
+    }
+}
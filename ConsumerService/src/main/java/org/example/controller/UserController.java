@@ -1,21 +1,43 @@
 package org.example.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import feign.FeignException;
 import feign.Response;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.config.SmileConfiguration;
 import org.example.data.User;
+import org.example.data.UserSummary;
 import org.example.response.ResultResponse;
+import org.example.service.UserCache;
+import org.example.service.UserCreateBatcher;
+import org.example.service.UserRemoteMetrics;
 import org.example.service.UserRemoteService;
+import org.example.stream.ContentDecoding;
+import org.example.stream.ResultResponseSerializer;
+import org.example.stream.UserNdjsonDecoder;
+import org.example.stream.UserSmileDecoder;
+import org.example.timing.ServerTiming;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.util.ArrayList;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.IntSummaryStatistics;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @RestController
 @RequestMapping("/v1")
@@ -24,42 +46,216 @@ import java.util.List;
 public class UserController {
     private final UserRemoteService userRemoteService;
     private final ObjectMapper objectMapper;
+    private final UserNdjsonDecoder userNdjsonDecoder;
+    private final UserSmileDecoder userSmileDecoder;
+    private final UserCreateBatcher userCreateBatcher;
+    private final UserCache userCache;
+    private final UserRemoteMetrics userRemoteMetrics;
 
     @PostMapping(value = "user", consumes = {MediaType.APPLICATION_JSON_VALUE}, produces = {MediaType.APPLICATION_JSON_VALUE})
     public ResponseEntity<ResultResponse<User>> createUser() {
         var user = User.builder().name("test").age(18).build();
-        return userRemoteService.createUser(user);
+        return userCreateBatcher.createUser(user);
     }
 
     @GetMapping(value = "user", produces = {MediaType.APPLICATION_JSON_VALUE})
     public ResponseEntity<ResultResponse<User>> retrieveUser() {
-        return userRemoteService.retrieveUser(1L);
+        return userCache.retrieveUser(1L);
     }
 
     @PutMapping(value = "user", consumes = {MediaType.APPLICATION_JSON_VALUE}, produces = {MediaType.APPLICATION_JSON_VALUE})
     public ResponseEntity<ResultResponse<User>> updateUser() {
         var user = User.builder().id(1L).build();
-        return userRemoteService.updateUser(user);
+        try {
+            return userRemoteService.updateUser(user);
+        } finally {
+            userCache.invalidate(user.getId());
+        }
     }
 
     @DeleteMapping(value = "user", produces = {MediaType.APPLICATION_JSON_VALUE})
     public ResponseEntity<ResultResponse<Void>> deleteUser() {
-        return userRemoteService.deleteUser(1L);
+        try {
+            return userRemoteService.deleteUser(1L);
+        } finally {
+            userCache.invalidate(1L);
+        }
     }
 
-    @GetMapping(value = "users", produces = {MediaType.APPLICATION_JSON_VALUE})
+    @GetMapping(value = "users", params = "stream!=true", produces = {MediaType.APPLICATION_JSON_VALUE})
     public ResponseEntity<ResultResponse<List<User>>> extractUsers() throws IOException {
-        var userList = new ArrayList<User>();
-        try (Response response = userRemoteService.extractUsers()) {
-            var inputStream = response.body().asInputStream();
-            var reader = new BufferedReader(new InputStreamReader(inputStream));
-            String line;
-            while ((line = reader.readLine()) != null) {
-                log.debug(line);
-                var user = objectMapper.readValue(line, User.class);
-                userList.add(user);
+        List<User> userList;
+        var timing = ServerTiming.current();
+        try (Response response = openUsers()) {
+            long start = System.nanoTime();
+            var inputStream = ContentDecoding.decode(response);
+            userList = SmileConfiguration.isSmile(response)
+                    ? userSmileDecoder.decode(inputStream)
+                    : userNdjsonDecoder.decode(inputStream);
+            if (timing != null) {
+                timing.record("decode", start);
             }
         }
+        userRemoteMetrics.recordExtracted(userList.size());
         return ResponseEntity.ok(ResultResponse.success(userList));
     }
-}
\ No newline at end of file
+
+    @GetMapping(value = "users", params = "stream=true", produces = {MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> streamUsers(NativeWebRequest request) {
+        var userWriter = objectMapper.writerFor(User.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        var response = openUsers();
+        var timing = ServerTiming.current();
+        StreamingResponseBody streamingResponseBody = outputStream -> {
+            long start = System.nanoTime();
+            // the response is only ended after the body returns, an export cut off upstream is broken off here too
+            try (response;
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(
+                         StreamUtils.nonClosing(outputStream))) {
+                var users = readUsers(response);
+                generator.writeRaw(ResultResponseSerializer.SUCCESS_PREFIX);
+                generator.writeStartArray();
+                long records = 0;
+                while (users.hasNext()) {
+                    userWriter.writeValue(generator, users.next());
+                    records++;
+                }
+                generator.writeEndArray();
+                generator.writeRaw('}');
+                userRemoteMetrics.recordExtracted(records);
+                // before the body returns and the response ends, which sends the trailer
+                if (timing != null) {
+                    timing.record("stream", start);
+                }
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON)
+                .body(closeOnCompletion(response, request, streamingResponseBody));
+    }
+
+    @GetMapping(value = "users", produces = {MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> relayUsers(NativeWebRequest request) {
+        var userWriter = objectMapper.writerFor(User.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        var response = openUsers();
+        var timing = ServerTiming.current();
+        StreamingResponseBody streamingResponseBody = outputStream -> {
+            long start = System.nanoTime();
+            try (response) {
+                if (!SmileConfiguration.isSmile(response)) {
+                    userRemoteMetrics.recordExtracted(transferLines(ContentDecoding.decode(response), outputStream));
+                    if (timing != null) {
+                        timing.record("relay", start);
+                    }
+                    return;
+                }
+                try (JsonGenerator generator = objectMapper.getFactory().createGenerator(
+                        StreamUtils.nonClosing(outputStream))) {
+                    generator.setRootValueSeparator(null);
+                    var users = readUsers(response);
+                    long records = 0;
+                    while (users.hasNext()) {
+                        userWriter.writeValue(generator, users.next());
+                        generator.writeRaw('\n');
+                        records++;
+                    }
+                    userRemoteMetrics.recordExtracted(records);
+                    if (timing != null) {
+                        timing.record("relay", start);
+                    }
+                }
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON)
+                .body(closeOnCompletion(response, request, streamingResponseBody));
+    }
+
+    @GetMapping(value = "users/summary", produces = {MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<ResultResponse<UserSummary>> summarizeUsers() throws IOException {
+        var ages = new IntSummaryStatistics();
+        long users = 0;
+        var timing = ServerTiming.current();
+        try (Response response = openUsers()) {
+            long start = System.nanoTime();
+            if (SmileConfiguration.isSmile(response)) {
+                var iterator = userSmileDecoder.iterator(ContentDecoding.decode(response));
+                while (iterator.hasNext()) {
+                    var age = iterator.next().getAge();
+                    if (age != null) {
+                        ages.accept(age);
+                    }
+                    users++;
+                }
+            } else {
+                // reads the age of every line in place, no User is materialized
+                users = userNdjsonDecoder.scan(ContentDecoding.decode(response), user -> {
+                    if (user.hasAge()) {
+                        ages.accept(user.age());
+                    }
+                });
+            }
+            if (timing != null) {
+                timing.record("decode", start);
+            }
+        }
+        userRemoteMetrics.recordExtracted(users);
+        boolean anyAge = ages.getCount() > 0;
+        return ResponseEntity.ok(ResultResponse.success(new UserSummary(users, ages.getCount(),
+                anyAge ? ages.getMin() : null, anyAge ? ages.getMax() : null, anyAge ? ages.getAverage() : null)));
+    }
+
+    private Iterator<User> readUsers(Response response) throws IOException {
+        var inputStream = ContentDecoding.decode(response);
+        return SmileConfiguration.isSmile(response)
+                ? userSmileDecoder.iterator(inputStream)
+                : objectMapper.readerFor(User.class).readValues(inputStream);
+    }
+
+    // copies the NDJSON stream as it is and returns the number of lines, counting an unterminated last one
+    private static long transferLines(InputStream inputStream, OutputStream outputStream) throws IOException {
+        var buffer = new byte[8192];
+        long lines = 0;
+        byte last = '\n';
+        int read;
+        while ((read = inputStream.read(buffer)) >= 0) {
+            for (int i = 0; i < read; i++) {
+                if (buffer[i] == '\n') {
+                    lines++;
+                }
+            }
+            if (read > 0) {
+                last = buffer[read - 1];
+                outputStream.write(buffer, 0, read);
+            }
+        }
+        return last == '\n' ? lines : lines + 1;
+    }
+
+    // the body closes the export once it runs, the request closes it when its task is rejected or never gets to run
+    private static StreamingResponseBody closeOnCompletion(Response response, NativeWebRequest request,
+                                                           StreamingResponseBody body) {
+        var claimed = new AtomicBoolean();
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(response,
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) {
+                        if (claimed.compareAndSet(false, true)) {
+                            response.close();
+                        }
+                    }
+                });
+        return outputStream -> {
+            if (claimed.compareAndSet(false, true)) {
+                body.writeTo(outputStream);
+            }
+        };
+    }
+
+    private Response openUsers() {
+        var response = userRemoteService.extractUsers();
+        if (HttpStatusCode.valueOf(response.status()).is2xxSuccessful()) {
+            return response;
+        }
+        try (response) {
+            throw FeignException.errorStatus("UserRemoteService#extractUsers()", response);
+        }
+    }
+}
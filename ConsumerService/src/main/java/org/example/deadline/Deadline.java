@@ -0,0 +1,49 @@
+package org.example.deadline;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The time left to answer a request, passed on to {@code user-service} in {@link #HEADER}.
+ */
+public final class Deadline {
+    // the remaining budget in milliseconds, relative so the clocks of caller and callee need not agree
+    public static final String HEADER = "Request-Timeout";
+    static final String ATTRIBUTE = Deadline.class.getName();
+
+    private final long startNanos;
+    // toNanos saturates, and elapsed time is subtracted from it rather than the budget added to a clock reading
+    private final long budgetNanos;
+
+    Deadline(long budgetMillis) {
+        this.startNanos = System.nanoTime();
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+    }
+
+    public static Deadline current() {
+        var attributes = RequestContextHolder.getRequestAttributes();
+        return attributes == null
+                ? null
+                : (Deadline) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    static Deadline of(HttpServletRequest request) {
+        return (Deadline) request.getAttribute(ATTRIBUTE);
+    }
+
+    public long remainingNanos() {
+        return budgetNanos - (System.nanoTime() - startNanos);
+    }
+
+    public long remainingMillis() {
+        long remaining = remainingNanos();
+        return remaining <= 0 ? 0 : Math.ceilDiv(remaining, 1_000_000);
+    }
+
+    public boolean expired() {
+        return remainingNanos() <= 0;
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.deadline;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.config.DeadlineProperties;
+import org.example.response.ResultResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+@Component
+public class DeadlineFilter extends OncePerRequestFilter {
+    private final boolean enabled;
+    private final long budgetMillis;
+    private final ObjectMapper objectMapper;
+
+    public DeadlineFilter(DeadlineProperties properties, ObjectMapper objectMapper) {
+        this.enabled = properties.enabled();
+        this.budgetMillis = properties.budget().toMillis();
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (enabled) {
+            long budget = budget(request);
+            if (budget <= 0) {
+                response.setStatus(HttpStatus.GATEWAY_TIMEOUT.value());
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                objectMapper.writeValue(response.getOutputStream(), ResultResponse.fail(
+                        HttpStatus.GATEWAY_TIMEOUT.value(), "Request deadline exceeded before it was handled"));
+                return;
+            }
+            request.setAttribute(Deadline.ATTRIBUTE, new Deadline(budget));
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private long budget(HttpServletRequest request) {
+        var budget = request.getHeader(Deadline.HEADER);
+        if (budget != null) {
+            try {
+                return Math.min(budgetMillis, Long.parseLong(budget.trim()));
+            } catch (NumberFormatException e) {
+                // not the caller's budget then
+            }
+        }
+        return budgetMillis;
+    }
+}
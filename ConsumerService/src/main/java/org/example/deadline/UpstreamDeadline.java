@@ -0,0 +1,86 @@
+package org.example.deadline;
+
+import feign.AsyncClient;
+import feign.Client;
+import feign.Request;
+import feign.RequestInterceptor;
+import org.example.exception.DeadlineExceededException;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounds the calls a request makes to an upstream service through a Feign {@link Client} by its {@link Deadline}.
+ */
+public final class UpstreamDeadline {
+    private UpstreamDeadline() {
+    }
+
+    public static Client instrument(Client client, String service) {
+        return (request, options) -> {
+            var deadline = Deadline.current();
+            if (deadline == null) {
+                return client.execute(request, options);
+            }
+            var bounded = bound(options, deadline, service);
+            try {
+                return client.execute(request, bounded);
+            } catch (IOException e) {
+                if (deadline.expired()) {
+                    throw exceeded(service);
+                }
+                throw e;
+            }
+        };
+    }
+
+    // the deadline is looked up when the call is made, AsyncFeign does that on the calling thread
+    public static <C> AsyncClient<C> instrumentAsync(AsyncClient<C> client, String service) {
+        return (request, options, context) -> {
+            var deadline = Deadline.current();
+            if (deadline == null) {
+                return client.execute(request, options, context);
+            }
+            Request.Options bounded;
+            try {
+                bounded = bound(options, deadline, service);
+            } catch (DeadlineExceededException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+            return client.execute(request, bounded, context).exceptionally(e -> {
+                if (deadline.expired()) {
+                    throw exceeded(service);
+                }
+                throw e instanceof CompletionException completion ? completion : new CompletionException(e);
+            });
+        };
+    }
+
+    private static Request.Options bound(Request.Options options, Deadline deadline, String service) {
+        long remaining = deadline.remainingMillis();
+        if (remaining <= 0) {
+            throw new DeadlineExceededException("Request deadline exceeded before calling " + service);
+        }
+        // the JDK transport builds a new HttpClient for every connect timeout that differs from its own
+        return new Request.Options(
+                options.connectTimeoutMillis(), TimeUnit.MILLISECONDS,
+                Math.min(options.readTimeoutMillis(), remaining), TimeUnit.MILLISECONDS,
+                options.isFollowRedirects());
+    }
+
+    private static DeadlineExceededException exceeded(String service) {
+        return new DeadlineExceededException("Request deadline exceeded while calling " + service);
+    }
+
+    public static RequestInterceptor propagateDeadline() {
+        return template -> {
+            var deadline = Deadline.current();
+            template.removeHeader(Deadline.HEADER);
+            if (deadline != null) {
+                template.header(Deadline.HEADER, Long.toString(deadline.remainingMillis()));
+            }
+        };
+    }
+}
@@ -1,8 +1,11 @@
 package org.example.exception;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.example.deadline.Deadline;
 import org.example.response.ResultResponse;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -10,10 +13,34 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 @RestControllerAdvice
 @Slf4j
 public class ControllerGlobalExceptionHandler {
+    @ExceptionHandler(UserRemoteLimitException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ResultResponse<String> handleUserRemoteLimitException(UserRemoteLimitException e) {
+        log.debug(e.getMessage());
+        return ResultResponse.fail(HttpStatus.SERVICE_UNAVAILABLE.value(), e.getMessage());
+    }
+
+    @ExceptionHandler(DeadlineExceededException.class)
+    @ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+    public ResultResponse<String> handleDeadlineExceededException(DeadlineExceededException e) {
+        log.debug(e.getMessage());
+        return ResultResponse.fail(HttpStatus.GATEWAY_TIMEOUT.value(), e.getMessage());
+    }
+
     @ExceptionHandler(Exception.class)
-    @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
-    public ResultResponse<String> handleException(Exception e) {
+    public ResponseEntity<ResultResponse<String>> handleException(Exception e, HttpServletResponse response)
+            throws Exception {
+        if (response.isCommitted()) {
+            throw e;
+        }
+        var deadline = Deadline.current();
+        if (deadline != null && deadline.expired()) {
+            log.debug("Request deadline exceeded: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT)
+                    .body(ResultResponse.fail(HttpStatus.GATEWAY_TIMEOUT.value(), "Request deadline exceeded"));
+        }
         log.error(e.getMessage(), e);
-        return ResultResponse.fail(HttpStatus.INTERNAL_SERVER_ERROR.value(), e.getMessage());
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ResultResponse.fail(HttpStatus.INTERNAL_SERVER_ERROR.value(), e.getMessage()));
     }
 }
\ No newline at end of file
@@ -0,0 +1,7 @@
+package org.example.exception;
+
+public class UserRemoteLimitException extends RuntimeException {
+    public UserRemoteLimitException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.service;
+
+import java.util.Arrays;
+
+final class HedgeDelay {
+    private static final int WINDOW = 1024;
+    private static final int REFRESH = 64;
+
+    private final double percentile;
+    private final long minNanos;
+    private final long[] samples = new long[WINDOW];
+    private long count;
+    private volatile long nanos = -1;
+
+    HedgeDelay(double percentile, long minNanos) {
+        this.percentile = percentile;
+        this.minNanos = minNanos;
+    }
+
+    void record(long latencyNanos) {
+        long[] window;
+        synchronized (this) {
+            samples[(int) (count++ % WINDOW)] = latencyNanos;
+            if (count % REFRESH != 0) {
+                return;
+            }
+            window = Arrays.copyOf(samples, (int) Math.min(count, WINDOW));
+        }
+        // sorted outside the lock, the calls recording meanwhile are not held up
+        Arrays.sort(window);
+        int index = (int) Math.ceil(percentile * window.length) - 1;
+        nanos = Math.max(minNanos, window[Math.max(0, Math.min(window.length - 1, index))]);
+    }
+
+    long nanos() {
+        return nanos;
+    }
+}
@@ -0,0 +1,192 @@
+package org.example.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import feign.Response;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.config.CacheProperties;
+import org.example.config.SmileConfiguration;
+import org.example.data.User;
+import org.example.response.ResultResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+@Component
+public class UserCache {
+    // object headers and references of the entry, the User and its boxed fields, on top of the strings' characters
+    private static final int ENTRY_OVERHEAD = 128;
+    private static final TypeReference<ResultResponse<User>> USER_RESPONSE = new TypeReference<>() {
+    };
+
+    private final UserRetrieveCollapser userRetrieveCollapser;
+    private final UserRemoteAsyncService userRemoteAsyncService;
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper smileMapper;
+    private final AsyncLoadingCache<Long, CachedUser> cache;
+    private final Counter notModified;
+    private final Counter modified;
+    private final Counter removed;
+
+    public UserCache(UserRetrieveCollapser userRetrieveCollapser, UserRemoteAsyncService userRemoteAsyncService,
+                     ObjectMapper objectMapper, MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter,
+                     CacheProperties properties, MeterRegistry meterRegistry) {
+        this.userRetrieveCollapser = userRetrieveCollapser;
+        this.userRemoteAsyncService = userRemoteAsyncService;
+        this.objectMapper = objectMapper;
+        this.smileMapper = smileHttpMessageConverter.getObjectMapper();
+        this.notModified = revalidations("not-modified", meterRegistry);
+        this.modified = revalidations("modified", meterRegistry);
+        this.removed = revalidations("removed", meterRegistry);
+        if (!properties.enabled()) {
+            this.cache = null;
+            return;
+        }
+        var entryWeights = DistributionSummary.builder("user.cache.entry.weight")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.maxWeight().toBytes())
+                .weigher((Long id, CachedUser cached) -> {
+                    int weight = weigh(cached);
+                    entryWeights.record(weight);
+                    return weight;
+                })
+                .refreshAfterWrite(properties.revalidateAfter())
+                .expireAfterAccess(properties.ttl())
+                .recordStats()
+                .buildAsync(new Revalidator());
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "users");
+        Gauge.builder("user.cache.weight", this, UserCache::weight)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public ResponseEntity<ResultResponse<User>> retrieveUser(Long id) {
+        if (cache == null || id == null) {
+            return userRetrieveCollapser.retrieveUser(id);
+        }
+        var load = new CompletableFuture<CachedUser>();
+        var cached = cache.get(id, (key, executor) -> load);
+        if (cached != load) {
+            var hit = await(cached);
+            if (hit != null) {
+                return ResponseEntity.ok().eTag(hit.etag()).body(ResultResponse.success(hit.user()));
+            }
+            // the shared load was not cacheable, which only happens to unsuccessful lookups
+            return userRetrieveCollapser.retrieveUser(id);
+        }
+        try {
+            var response = userRetrieveCollapser.retrieveUser(id);
+            load.complete(cacheable(response));
+            return response;
+        } catch (RuntimeException | Error e) {
+            load.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public void invalidate(Long id) {
+        if (cache != null && id != null) {
+            cache.synchronous().invalidate(id);
+        }
+    }
+
+    private static CachedUser cacheable(ResponseEntity<ResultResponse<User>> response) {
+        var body = response.getBody();
+        boolean cacheable = response.getStatusCode().is2xxSuccessful() && body != null
+                && Boolean.TRUE.equals(body.getSuccess()) && body.getData() != null;
+        return cacheable ? new CachedUser(body.getData(), response.getHeaders().getETag()) : null;
+    }
+
+    private CompletableFuture<CachedUser> revalidate(Long id, CachedUser cached) {
+        return userRemoteAsyncService.revalidateUser(id, cached.etag()).thenApply(response -> {
+            try (response) {
+                if (response.status() == HttpStatus.NOT_MODIFIED.value()) {
+                    notModified.increment();
+                    return cached;
+                }
+                var body = response.status() == HttpStatus.OK.value() ? read(response) : null;
+                if (body == null || !Boolean.TRUE.equals(body.getSuccess()) || body.getData() == null) {
+                    removed.increment();
+                    return null;
+                }
+                modified.increment();
+                var etags = response.headers().get(HttpHeaders.ETAG);
+                return new CachedUser(body.getData(), etags == null ? null : etags.iterator().next());
+            }
+        });
+    }
+
+    private ResultResponse<User> read(Response response) {
+        if (response.body() == null) {
+            return null;
+        }
+        var mapper = SmileConfiguration.isSmile(response) ? smileMapper : objectMapper;
+        try {
+            return mapper.readValue(response.body().asInputStream(), USER_RESPONSE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private double weight() {
+        var eviction = cache.synchronous().policy().eviction();
+        return eviction.isPresent() ? eviction.get().weightedSize().orElse(0) : 0;
+    }
+
+    private static Counter revalidations(String result, MeterRegistry meterRegistry) {
+        return Counter.builder("user.cache.revalidations").tag("result", result).register(meterRegistry);
+    }
+
+    private static CachedUser await(CompletableFuture<CachedUser> cached) {
+        try {
+            return cached.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static int weigh(CachedUser cached) {
+        var name = cached.user().getName();
+        var etag = cached.etag();
+        return ENTRY_OVERHEAD + (name == null ? 0 : name.length() * 2) + (etag == null ? 0 : etag.length());
+    }
+
+    private record CachedUser(User user, String etag) {
+    }
+
+    private final class Revalidator implements AsyncCacheLoader<Long, CachedUser> {
+        @Override
+        public CompletableFuture<CachedUser> asyncLoad(Long id, Executor executor) {
+            // retrieveUser runs its load itself to answer uncacheable responses too, this serves every other load
+            return CompletableFuture.supplyAsync(() -> cacheable(userRetrieveCollapser.retrieveUser(id)), executor);
+        }
+
+        @Override
+        public CompletableFuture<CachedUser> asyncReload(Long id, CachedUser cached, Executor executor) {
+            return revalidate(id, cached);
+        }
+    }
+}
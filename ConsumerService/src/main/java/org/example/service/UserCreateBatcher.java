@@ -0,0 +1,211 @@
+package org.example.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.config.BatchProperties;
+import org.example.config.UserRemoteAsyncConfiguration;
+import org.example.data.User;
+import org.example.exception.DeadlineExceededException;
+import org.example.response.ResultResponse;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.cloud.openfeign.FeignClientProperties;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Coalesces concurrent {@link UserRemoteService#createUser(User)} calls into {@code POST /v1/users/batch}.
+ */
+@Component
+@Slf4j
+public class UserCreateBatcher {
+    private static final String CLIENT_NAME = "user-service";
+    private static final String CREATE_USER = "UserRemoteService#createUser(User)";
+
+    private final UserRemoteService userRemoteService;
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxItems;
+    private final long timeoutNanos;
+    private final String url;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<PendingCreate> queue;
+    private final List<Thread> flushers = new ArrayList<>();
+    private final DistributionSummary batchSizes;
+
+    public UserCreateBatcher(UserRemoteService userRemoteService, BatchProperties properties,
+                             FeignClientProperties feignClientProperties, ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry, Environment environment) {
+        this.userRemoteService = userRemoteService;
+        this.enabled = properties.enabled();
+        this.windowNanos = properties.window().toNanos();
+        this.maxItems = Math.max(1, properties.maxItems());
+        // a caller waits for the window plus the batch round trip
+        var options = UserRemoteAsyncConfiguration.options(feignClientProperties);
+        this.timeoutNanos = windowNanos + TimeUnit.MILLISECONDS.toNanos(options.readTimeoutMillis());
+        var config = feignClientProperties.getConfig().get(CLIENT_NAME);
+        this.url = (config != null && StringUtils.hasText(config.getUrl()) ? config.getUrl() : "http://" + CLIENT_NAME)
+                + "/v1/user";
+        this.objectMapper = objectMapper;
+        this.queue = new LinkedBlockingQueue<>(Math.max(1, properties.queueCapacity()));
+        this.batchSizes = DistributionSummary.builder("user.create.batch.size").register(meterRegistry);
+        if (enabled) {
+            Thread.Builder builder = Threading.VIRTUAL.isActive(environment)
+                    ? Thread.ofVirtual()
+                    : Thread.ofPlatform().daemon();
+            builder.name("user-create-batch-", 1);
+            for (int i = 0; i < Math.max(1, properties.concurrency()); i++) {
+                flushers.add(builder.start(this::flushLoop));
+            }
+        }
+    }
+
+    public ResponseEntity<ResultResponse<User>> createUser(User user) {
+        if (!enabled) {
+            return userRemoteService.createUser(user);
+        }
+        var pending = new PendingCreate(user, new CompletableFuture<>());
+        if (!queue.offer(pending)) {
+            return userRemoteService.createUser(user);
+        }
+        try {
+            return pending.result().get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            queue.remove(pending);
+            pending.result().cancel(false);
+            // not retryable, the batch may still create the user
+            throw new DeadlineExceededException("Timed out waiting for a batched POST " + url);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queue.remove(pending);
+            pending.result().cancel(false);
+            throw new IllegalStateException("Interrupted while waiting for a batched create", e);
+        }
+    }
+
+    private void flushLoop() {
+        var batch = new ArrayList<PendingCreate>(maxItems);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxItems) {
+                    if (queue.drainTo(batch, maxItems - batch.size()) > 0) {
+                        continue;
+                    }
+                    var next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                fail(batch, new IllegalStateException("User create batcher is shut down"));
+                return;
+            }
+            send(batch);
+            batch.clear();
+        }
+    }
+
+    private void send(List<PendingCreate> batch) {
+        batchSizes.record(batch.size());
+        try {
+            if (batch.size() == 1) {
+                var pending = batch.get(0);
+                pending.result().complete(userRemoteService.createUser(pending.user()));
+                return;
+            }
+            var response = userRemoteService.createUsers(batch.stream().map(PendingCreate::user).toList());
+            var body = response.getBody();
+            var results = body == null ? null : body.getData();
+            if (results == null || results.size() != batch.size()) {
+                throw new IllegalStateException("Batch create answered " + (results == null ? 0 : results.size())
+                        + " results for " + batch.size() + " users");
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                var pending = batch.get(i);
+                var result = results.get(i);
+                if (Boolean.TRUE.equals(result.getSuccess())) {
+                    pending.result().complete(ResponseEntity.ok(result));
+                } else {
+                    pending.result().completeExceptionally(failed(pending.user(), result));
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("batch create of {} users failed: {}", batch.size(), e.getMessage());
+            fail(batch, e);
+        }
+    }
+
+    // what the error decoder throws when an unbatched create answers the same envelope
+    private FeignException failed(User user, ResultResponse<User> result) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(result);
+        } catch (JsonProcessingException e) {
+            body = new byte[0];
+        }
+        var response = Response.builder()
+                .request(request(user))
+                .status(result.getCode() == null ? HttpStatus.INTERNAL_SERVER_ERROR.value() : result.getCode())
+                .headers(Map.of(HttpHeaders.CONTENT_TYPE, List.of(MediaType.APPLICATION_JSON_VALUE)))
+                .body(body)
+                .build();
+        return FeignException.errorStatus(CREATE_USER, response);
+    }
+
+    private Request request(User user) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(user);
+        } catch (JsonProcessingException e) {
+            body = null;
+        }
+        return Request.create(Request.HttpMethod.POST, url,
+                Map.of(HttpHeaders.CONTENT_TYPE, List.of(MediaType.APPLICATION_JSON_VALUE)), body,
+                StandardCharsets.UTF_8, null);
+    }
+
+    private static void fail(List<PendingCreate> batch, RuntimeException e) {
+        batch.forEach(pending -> pending.result().completeExceptionally(e));
+    }
+
+    @PreDestroy
+    public void close() {
+        flushers.forEach(Thread::interrupt);
+        var abandoned = new ArrayList<PendingCreate>();
+        queue.drainTo(abandoned);
+        fail(abandoned, new IllegalStateException("User create batcher is shut down"));
+    }
+
+    private record PendingCreate(User user, CompletableFuture<ResponseEntity<ResultResponse<User>>> result) {
+    }
+}
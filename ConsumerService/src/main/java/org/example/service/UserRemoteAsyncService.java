@@ -0,0 +1,30 @@
+package org.example.service;
+
+import feign.Response;
+import org.example.data.User;
+import org.example.response.ResultResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface UserRemoteAsyncService {
+
+    @PostMapping(value = "/user", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    CompletableFuture<ResponseEntity<ResultResponse<User>>> createUser(@RequestBody User user);
+
+    @GetMapping(value = "/user", produces = MediaType.APPLICATION_JSON_VALUE)
+    CompletableFuture<ResponseEntity<ResultResponse<User>>> retrieveUser(@RequestParam Long id);
+
+    @GetMapping(value = "/user", produces = MediaType.APPLICATION_JSON_VALUE)
+    CompletableFuture<Response> revalidateUser(@RequestParam Long id,
+                                               @RequestHeader(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch);
+
+    @PutMapping(value = "/user", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    CompletableFuture<ResponseEntity<ResultResponse<User>>> updateUser(@RequestBody User user);
+
+    @DeleteMapping(value = "/user", produces = MediaType.APPLICATION_JSON_VALUE)
+    CompletableFuture<ResponseEntity<ResultResponse<Void>>> deleteUser(@RequestParam Long id);
+}
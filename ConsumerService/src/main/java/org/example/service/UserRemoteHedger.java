@@ -0,0 +1,303 @@
+package org.example.service;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.annotation.PreDestroy;
+import org.apache.hc.core5.http.io.EofSensorInputStream;
+import org.example.config.HedgeProperties;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class UserRemoteHedger {
+    private static final long TOKEN = 1_000_000;
+
+    private final HedgeProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executor;
+    // attempts on the executor, taken before one is submitted and given back once its thread is free again
+    private final Semaphore slots;
+    private final ConcurrentHashMap<String, MethodHedge> methods = new ConcurrentHashMap<>();
+    private final long deposit;
+    private final long maxBalance;
+    // in millionths of a hedge
+    private final AtomicLong balance;
+
+    public UserRemoteHedger(HedgeProperties properties, MeterRegistry meterRegistry, Environment environment) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.executor = Threading.VIRTUAL.isActive(environment)
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("user-service-hedge-", 1).factory())
+                : platformExecutor(properties.maxAttempts());
+        this.slots = new Semaphore(properties.maxAttempts());
+        this.deposit = (long) (properties.budget() * TOKEN);
+        this.maxBalance = properties.burst() * TOKEN;
+        this.balance = new AtomicLong(maxBalance);
+    }
+
+    // as many threads as slots, a task only queues while the thread of one that gave back its slot winds down
+    private static ExecutorService platformExecutor(int threads) {
+        var executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(threads),
+                new CustomizableThreadFactory("user-service-hedge-"));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public Client instrument(Client client) {
+        return properties.enabled() ? new HedgedClient(client) : client;
+    }
+
+    private MethodHedge hedge(Request request) {
+        var metadata = request.requestTemplate() == null ? null : request.requestTemplate().methodMetadata();
+        var key = metadata == null ? "unknown" : metadata.configKey();
+        var hedge = methods.get(key);
+        if (hedge == null) {
+            hedge = methods.computeIfAbsent(key, k -> new MethodHedge(
+                    metadata == null ? "unknown" : metadata.method().getName()));
+        }
+        return hedge;
+    }
+
+    private void deposit() {
+        deposit(deposit);
+    }
+
+    private void deposit(long amount) {
+        long current;
+        do {
+            current = balance.get();
+            if (current >= maxBalance) {
+                return;
+            }
+        } while (!balance.compareAndSet(current, Math.min(maxBalance, current + amount)));
+    }
+
+    private boolean withdraw() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < TOKEN) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - TOKEN));
+        return true;
+    }
+
+    private static void discard(Response response) {
+        try {
+            if (response.body() != null && response.body().length() == null
+                    && response.body().asInputStream() instanceof EofSensorInputStream stream) {
+                stream.abort();
+                return;
+            }
+        } catch (IOException ignored) {
+            // closed below
+        }
+        response.close();
+    }
+
+    private final class MethodHedge {
+        private final HedgeDelay delay = new HedgeDelay(properties.percentile(), properties.minDelay().toNanos());
+        private final Counter won;
+        private final Counter lost;
+        private final Counter overBudget;
+        private final Counter saturated;
+
+        private MethodHedge(String method) {
+            TimeGauge.builder("user.remote.hedge.delay", delay, TimeUnit.NANOSECONDS, HedgeDelay::nanos)
+                    .tag("method", method)
+                    .register(meterRegistry);
+            this.won = counter(method, "won");
+            this.lost = counter(method, "lost");
+            this.overBudget = counter(method, "over-budget");
+            this.saturated = counter(method, "saturated");
+        }
+
+        private Counter counter(String method, String result) {
+            return Counter.builder("user.remote.hedges")
+                    .tag("method", method)
+                    .tag("result", result)
+                    .register(meterRegistry);
+        }
+    }
+
+    private final class HedgedClient implements Client {
+        private final Client delegate;
+
+        private HedgedClient(Client delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Response execute(Request request, Request.Options options) throws IOException {
+            if (request.httpMethod() != Request.HttpMethod.GET) {
+                return delegate.execute(request, options);
+            }
+            var hedge = hedge(request);
+            long delay = hedge.delay.nanos();
+            if (delay < 0 || !slots.tryAcquire()) {
+                long start = System.nanoTime();
+                var response = delegate.execute(request, options);
+                hedge.delay.record(System.nanoTime() - start);
+                return response;
+            }
+            deposit();
+            return new HedgedCall(delegate, request, options, hedge).execute(delay);
+        }
+    }
+
+    private final class HedgedCall {
+        private final Client delegate;
+        private final Request request;
+        private final Request.Options options;
+        private final MethodHedge hedge;
+        private final CompletableFuture<Response> winner = new CompletableFuture<>();
+        private final AtomicInteger first = new AtomicInteger(-1);
+        // attempts that have not failed yet, the call only fails with the last of them
+        private final AtomicInteger pending = new AtomicInteger(1);
+        private final Future<?>[] attempts = new Future<?>[2];
+
+        private HedgedCall(Client delegate, Request request, Request.Options options, MethodHedge hedge) {
+            this.delegate = delegate;
+            this.request = request;
+            this.options = options;
+            this.hedge = hedge;
+        }
+
+        private Response execute(long delay) throws IOException {
+            attempts[0] = submit(0);
+            if (attempts[0] == null) {
+                return delegate.execute(request, options);
+            }
+            try {
+                try {
+                    return winner.get(delay, TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    hedge();
+                }
+                var response = winner.get();
+                if (attempts[1] != null) {
+                    (first.get() == 1 ? hedge.won : hedge.lost).increment();
+                }
+                return response;
+            } catch (InterruptedException e) {
+                // nobody takes the response of an attempt that wins after all
+                winner.thenAccept(UserRemoteHedger::discard);
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for user-service");
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException cause) {
+                    throw cause;
+                }
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw new IOException(e.getCause());
+            } finally {
+                for (int i = 0; i < attempts.length; i++) {
+                    if (attempts[i] != null && i != first.get()) {
+                        attempts[i].cancel(true);
+                    }
+                }
+            }
+        }
+
+        private void hedge() {
+            if (winner.isDone()) {
+                return;
+            }
+            if (!slots.tryAcquire()) {
+                hedge.saturated.increment();
+                return;
+            }
+            if (!withdraw()) {
+                slots.release();
+                hedge.overBudget.increment();
+                return;
+            }
+            pending.incrementAndGet();
+            attempts[1] = submit(1);
+            if (attempts[1] == null) {
+                pending.decrementAndGet();
+                deposit(TOKEN);
+                hedge.saturated.increment();
+            }
+        }
+
+        // with its slot taken; a cancelled attempt keeps it until its thread is back, unless it never started
+        private Future<?> submit(int index) {
+            var claimed = new AtomicBoolean();
+            var task = new FutureTask<Void>(() -> {
+                if (claimed.compareAndSet(false, true)) {
+                    try {
+                        attempt(index);
+                    } finally {
+                        slots.release();
+                    }
+                }
+            }, null) {
+                @Override
+                protected void done() {
+                    if (claimed.compareAndSet(false, true)) {
+                        slots.release();
+                    }
+                }
+            };
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                task.cancel(false);
+                return null;
+            }
+            return task;
+        }
+
+        private void attempt(int index) {
+            long start = System.nanoTime();
+            Response response;
+            try {
+                response = delegate.execute(request, options);
+            } catch (Throwable e) {
+                if (pending.decrementAndGet() == 0) {
+                    winner.completeExceptionally(e);
+                }
+                return;
+            }
+            hedge.delay.record(System.nanoTime() - start);
+            // the winner may already have failed, when the other attempt did before this one was sent
+            if (!first.compareAndSet(-1, index) || !winner.complete(response)) {
+                discard(response);
+            }
+        }
+    }
+}
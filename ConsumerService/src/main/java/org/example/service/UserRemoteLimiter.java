@@ -0,0 +1,190 @@
+package org.example.service;
+
+import feign.AsyncClient;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.config.LimitProperties;
+import org.example.exception.UserRemoteLimitException;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class UserRemoteLimiter {
+    private static final String EXPORT_METHOD = "extractUsers";
+
+    private final LimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, MethodLimit> methods = new ConcurrentHashMap<>();
+
+    public UserRemoteLimiter(LimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public Client instrument(Client client) {
+        return properties.enabled() ? new LimitedClient(client) : client;
+    }
+
+    public <C> AsyncClient<C> instrumentAsync(AsyncClient<C> client) {
+        if (!properties.enabled()) {
+            return client;
+        }
+        return (request, options, context) -> {
+            var methodLimit = limit(request);
+            int inflight;
+            try {
+                inflight = methodLimit.acquire();
+            } catch (UserRemoteLimitException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+            long start = System.nanoTime();
+            return client.execute(request, options, context)
+                    .whenComplete((response, e) -> {
+                        if (e != null) {
+                            methodLimit.failed(start, inflight);
+                        }
+                    })
+                    .thenApply(response -> {
+                        try {
+                            return methodLimit.completed(response, start, inflight);
+                        } catch (IOException e) {
+                            throw new CompletionException(e);
+                        }
+                    });
+        };
+    }
+
+    private MethodLimit limit(Request request) {
+        var metadata = request.requestTemplate() == null ? null : request.requestTemplate().methodMetadata();
+        // by name, so the blocking and the async client share the limit of a method
+        var method = metadata == null ? "unknown" : metadata.method().getName();
+        var limit = methods.get(method);
+        if (limit == null) {
+            limit = methods.computeIfAbsent(method, MethodLimit::new);
+        }
+        return limit;
+    }
+
+    private final class MethodLimit {
+        private final String method;
+        private final boolean export;
+        private final VegasLimit limit;
+        private final Counter rejected;
+
+        private MethodLimit(String method) {
+            this.method = method;
+            this.export = EXPORT_METHOD.equals(method);
+            this.limit = new VegasLimit(export ? properties.export() : properties.single());
+            var bulkhead = export ? "export" : "single";
+            Gauge.builder("user.remote.limit", limit, VegasLimit::limit)
+                    .tag("method", method)
+                    .tag("bulkhead", bulkhead)
+                    .register(meterRegistry);
+            Gauge.builder("user.remote.inflight", limit, VegasLimit::inflight)
+                    .tag("method", method)
+                    .tag("bulkhead", bulkhead)
+                    .register(meterRegistry);
+            this.rejected = Counter.builder("user.remote.rejected")
+                    .tag("method", method)
+                    .tag("bulkhead", bulkhead)
+                    .register(meterRegistry);
+        }
+
+        private int acquire() {
+            int inflight = limit.tryAcquire();
+            if (inflight < 0) {
+                rejected.increment();
+                throw new UserRemoteLimitException("user-service limit of " + limit.limit() + " concurrent "
+                        + method + " calls reached");
+            }
+            return inflight;
+        }
+
+        private void failed(long start, int inflight) {
+            limit.release();
+            limit.sample(System.nanoTime() - start, inflight + 1, true);
+        }
+
+        private Response completed(Response response, long start, int inflight) throws IOException {
+            limit.sample(System.nanoTime() - start, inflight + 1, response.status() >= 500);
+            if (!export || response.body() == null) {
+                limit.release();
+                return response;
+            }
+            try {
+                var body = new ReleasingInputStream(response.body().asInputStream(), limit);
+                return response.toBuilder().body(body, response.body().length()).build();
+            } catch (IOException | RuntimeException e) {
+                limit.release();
+                response.close();
+                throw e;
+            }
+        }
+    }
+
+    private final class LimitedClient implements Client {
+        private final Client delegate;
+
+        private LimitedClient(Client delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Response execute(Request request, Request.Options options) throws IOException {
+            var methodLimit = limit(request);
+            int inflight = methodLimit.acquire();
+            long start = System.nanoTime();
+            Response response;
+            try {
+                response = delegate.execute(request, options);
+            } catch (IOException | RuntimeException e) {
+                methodLimit.failed(start, inflight);
+                throw e;
+            }
+            return methodLimit.completed(response, start, inflight);
+        }
+    }
+
+    private static final class ReleasingInputStream extends FilterInputStream {
+        private final VegasLimit limit;
+        private boolean closed;
+
+        private ReleasingInputStream(InputStream in, VegasLimit limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public byte[] readAllBytes() throws IOException {
+            return in.readAllBytes();
+        }
+
+        @Override
+        public long transferTo(OutputStream out) throws IOException {
+            return in.transferTo(out);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                in.close();
+            } finally {
+                if (!closed) {
+                    closed = true;
+                    limit.release();
+                }
+            }
+        }
+    }
+}
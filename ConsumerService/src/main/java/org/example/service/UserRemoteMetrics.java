@@ -0,0 +1,217 @@
+package org.example.service;
+
+import feign.AsyncClient;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.actuate.metrics.http.Outcome;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class UserRemoteMetrics {
+    private static final double[] PERCENTILES = {0.5, 0.99, 0.999};
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, MethodMeters> methods = new ConcurrentHashMap<>();
+    private final Counter extractedRecords;
+
+    public UserRemoteMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.extractedRecords = Counter.builder("user.remote.extracted.records")
+                .tag("method", "extractUsers")
+                .register(meterRegistry);
+    }
+
+    public Client instrument(Client client) {
+        return new MeteredClient(client);
+    }
+
+    public <C> AsyncClient<C> instrumentAsync(AsyncClient<C> client) {
+        return (request, options, context) -> {
+            var meters = meters(request);
+            meters.requestSize.record(request.body() == null ? 0 : request.body().length);
+            long start = System.nanoTime();
+            return client.execute(request, options, context)
+                    .whenComplete((response, e) -> {
+                        if (e != null) {
+                            meters.failed(start);
+                        }
+                    })
+                    .thenApply(response -> {
+                        try {
+                            return meters.completed(response, start);
+                        } catch (IOException e) {
+                            throw new CompletionException(e);
+                        }
+                    });
+        };
+    }
+
+    public void recordExtracted(long records) {
+        extractedRecords.increment(records);
+    }
+
+    private MethodMeters meters(Request request) {
+        var metadata = request.requestTemplate() == null ? null : request.requestTemplate().methodMetadata();
+        var key = metadata == null ? "unknown" : metadata.configKey();
+        var meters = methods.get(key);
+        if (meters == null) {
+            meters = methods.computeIfAbsent(key, k -> new MethodMeters(
+                    metadata == null ? "unknown" : metadata.method().getName()));
+        }
+        return meters;
+    }
+
+    private final class MethodMeters {
+        private static final int IO_ERROR = -1;
+
+        private final String method;
+        private final DistributionSummary requestSize;
+        private final DistributionSummary responseSize;
+        private final ConcurrentHashMap<Integer, Timer> timers = new ConcurrentHashMap<>();
+
+        private MethodMeters(String method) {
+            this.method = method;
+            this.requestSize = DistributionSummary.builder("user.remote.request.size")
+                    .baseUnit("bytes")
+                    .tag("method", method)
+                    .register(meterRegistry);
+            this.responseSize = DistributionSummary.builder("user.remote.response.size")
+                    .baseUnit("bytes")
+                    .tag("method", method)
+                    .register(meterRegistry);
+        }
+
+        private void failed(long start) {
+            timer(IO_ERROR).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        private Response completed(Response response, long start) throws IOException {
+            timer(response.status()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (response.body() == null) {
+                responseSize.record(0);
+                return response;
+            }
+            if (response.body().length() != null) {
+                responseSize.record(response.body().length());
+                return response;
+            }
+            // chunked, in practice the extractUsers export: counted as it is read
+            var body = new CountingInputStream(response.body().asInputStream(), responseSize);
+            return response.toBuilder().body(body, null).build();
+        }
+
+        private Timer timer(int status) {
+            var timer = timers.get(status);
+            if (timer == null) {
+                timer = timers.computeIfAbsent(status, this::register);
+            }
+            return timer;
+        }
+
+        private Timer register(int status) {
+            return Timer.builder("user.remote.requests")
+                    .tag("method", method)
+                    .tag("status", status == IO_ERROR ? "IO_ERROR" : String.valueOf(status))
+                    .tag("outcome", (status == IO_ERROR ? Outcome.UNKNOWN : Outcome.forStatus(status)).name())
+                    .publishPercentiles(PERCENTILES)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+        }
+    }
+
+    private final class MeteredClient implements Client {
+        private final Client delegate;
+
+        private MeteredClient(Client delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Response execute(Request request, Request.Options options) throws IOException {
+            var meters = meters(request);
+            meters.requestSize.record(request.body() == null ? 0 : request.body().length);
+            long start = System.nanoTime();
+            Response response;
+            try {
+                response = delegate.execute(request, options);
+            } catch (IOException | RuntimeException e) {
+                meters.failed(start);
+                throw e;
+            }
+            return meters.completed(response, start);
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private final DistributionSummary size;
+        private long count;
+        private boolean closed;
+
+        private CountingInputStream(InputStream in, DistributionSummary size) {
+            super(in);
+            this.size = size;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = in.read(b, off, len);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        // the bulk reads keep the delegate's own implementations instead of InputStream's buffer-copying defaults
+        @Override
+        public byte[] readAllBytes() throws IOException {
+            var bytes = in.readAllBytes();
+            count += bytes.length;
+            return bytes;
+        }
+
+        @Override
+        public long transferTo(OutputStream out) throws IOException {
+            long transferred = in.transferTo(out);
+            count += transferred;
+            return transferred;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = in.skip(n);
+            count += skipped;
+            return skipped;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                size.record(count);
+            }
+            in.close();
+        }
+    }
+}
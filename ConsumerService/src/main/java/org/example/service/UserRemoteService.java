@@ -1,6 +1,7 @@
 package org.example.service;
 
 import feign.Response;
+import org.example.config.UserServiceFeignConfiguration;
 import org.example.data.User;
 import org.example.response.ResultResponse;
 import org.springframework.cloud.openfeign.FeignClient;
@@ -9,13 +10,18 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @Service
-@FeignClient(name = "user-service", path = "/v1")
+@FeignClient(name = "user-service", path = "/v1", configuration = UserServiceFeignConfiguration.class)
 public interface UserRemoteService {
 
     @PostMapping(value = "/user", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
     ResponseEntity<ResultResponse<User>> createUser(@RequestBody User user);
 
+    @PostMapping(value = "/users/batch", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<ResultResponse<List<ResultResponse<User>>>> createUsers(@RequestBody List<User> users);
+
     @GetMapping(value = "/user", produces = MediaType.APPLICATION_JSON_VALUE)
     ResponseEntity<ResultResponse<User>> retrieveUser(@RequestParam Long id);
 
@@ -25,6 +31,7 @@ public interface UserRemoteService {
     @DeleteMapping(value = "/user", produces = MediaType.APPLICATION_JSON_VALUE)
     ResponseEntity<ResultResponse<Void>> deleteUser(@RequestParam Long id);
 
-    @GetMapping(value = "/users", produces = MediaType.APPLICATION_JSON_VALUE)
+    @GetMapping(value = "/users", produces = MediaType.APPLICATION_JSON_VALUE,
+            headers = "Accept-Encoding=${consumer.decode.accept-encoding:zstd, gzip}")
     Response extractUsers();
 }
\ No newline at end of file
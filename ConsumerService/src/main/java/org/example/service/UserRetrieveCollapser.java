@@ -0,0 +1,91 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.config.SingleFlightProperties;
+import org.example.data.User;
+import org.example.response.ResultResponse;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Collapses concurrent {@link UserRemoteService#retrieveUser(Long)} calls for the same id into one remote call.
+ */
+@Component
+public class UserRetrieveCollapser {
+    private final UserRemoteService userRemoteService;
+    private final boolean enabled;
+    private final int maxInFlight;
+    private final ConcurrentHashMap<Long, CompletableFuture<ResponseEntity<ResultResponse<User>>>> inFlight =
+            new ConcurrentHashMap<>();
+    private final AtomicInteger inFlightCount = new AtomicInteger();
+    private final Counter issued;
+    private final Counter collapsed;
+
+    public UserRetrieveCollapser(UserRemoteService userRemoteService, SingleFlightProperties properties,
+                                 MeterRegistry meterRegistry) {
+        this.userRemoteService = userRemoteService;
+        this.enabled = properties.enabled();
+        this.maxInFlight = Math.max(1, properties.maxInFlight());
+        this.issued = Counter.builder("user.retrieve.calls").tag("result", "issued").register(meterRegistry);
+        this.collapsed = Counter.builder("user.retrieve.calls").tag("result", "collapsed").register(meterRegistry);
+        Gauge.builder("user.retrieve.in-flight", inFlightCount, AtomicInteger::get).register(meterRegistry);
+    }
+
+    public ResponseEntity<ResultResponse<User>> retrieveUser(Long id) {
+        if (!enabled || id == null) {
+            return issue(id);
+        }
+        var existing = inFlight.get(id);
+        if (existing != null) {
+            return await(existing);
+        }
+        if (inFlightCount.incrementAndGet() > maxInFlight) {
+            inFlightCount.decrementAndGet();
+            return issue(id);
+        }
+        var call = new CompletableFuture<ResponseEntity<ResultResponse<User>>>();
+        existing = inFlight.putIfAbsent(id, call);
+        if (existing != null) {
+            inFlightCount.decrementAndGet();
+            return await(existing);
+        }
+        try {
+            var response = issue(id);
+            call.complete(response);
+            return response;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(id, call);
+            inFlightCount.decrementAndGet();
+        }
+    }
+
+    private ResponseEntity<ResultResponse<User>> issue(Long id) {
+        issued.increment();
+        return userRemoteService.retrieveUser(id);
+    }
+
+    private ResponseEntity<ResultResponse<User>> await(CompletableFuture<ResponseEntity<ResultResponse<User>>> call) {
+        collapsed.increment();
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
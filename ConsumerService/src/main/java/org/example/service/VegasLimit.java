@@ -0,0 +1,89 @@
+package org.example.service;
+
+import org.example.config.LimitProperties;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit adapted from round-trip times the way TCP Vegas adapts its window.
+ */
+final class VegasLimit {
+    private static final int PROBE_MULTIPLIER = 30;
+    private static final double BACKOFF = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inflight = new AtomicInteger();
+    // read without the lock by tryAcquire
+    private volatile int limit;
+    private double estimate;
+    private long rttNoLoad;
+    private long samples;
+
+    VegasLimit(LimitProperties.Bulkhead bulkhead) {
+        this.minLimit = bulkhead.minLimit();
+        this.maxLimit = bulkhead.maxLimit();
+        this.estimate = bulkhead.initialLimit();
+        this.limit = bulkhead.initialLimit();
+    }
+
+    int tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= limit) {
+                return -1;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return current;
+            }
+        }
+    }
+
+    void release() {
+        inflight.decrementAndGet();
+    }
+
+    synchronized void sample(long rttNanos, int inflight, boolean failed) {
+        if (failed) {
+            update(estimate * BACKOFF);
+            return;
+        }
+        if (rttNanos <= 0) {
+            return;
+        }
+        if (++samples >= PROBE_MULTIPLIER * estimate) {
+            samples = 0;
+            rttNoLoad = rttNanos;
+            return;
+        }
+        if (rttNoLoad == 0 || rttNanos < rttNoLoad) {
+            rttNoLoad = rttNanos;
+            return;
+        }
+        if (inflight * 2 < estimate) {
+            return;
+        }
+        double queue = Math.ceil(estimate * (1 - (double) rttNoLoad / rttNanos));
+        double log = Math.max(1, Math.log10(estimate));
+        if (queue <= log) {
+            update(estimate + 6 * log);
+        } else if (queue < 3 * log) {
+            update(estimate + log);
+        } else if (queue > 6 * log) {
+            update(estimate - log);
+        }
+    }
+
+    int limit() {
+        return limit;
+    }
+
+    int inflight() {
+        return inflight.get();
+    }
+
+    private void update(double next) {
+        estimate = Math.min(maxLimit, Math.max(minLimit, next));
+        limit = (int) estimate;
+    }
+}
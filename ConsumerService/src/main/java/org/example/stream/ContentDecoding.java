@@ -0,0 +1,57 @@
+package org.example.stream;
+
+import com.github.luben.zstd.ZstdInputStreamNoFinalizer;
+import feign.Client;
+import feign.Response;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+
+public final class ContentDecoding {
+    private static final int BUFFER_SIZE = 8192;
+
+    private ContentDecoding() {
+    }
+
+    public static Client dropTransportEncoding(Client client) {
+        return (request, options) -> {
+            var response = client.execute(request, options);
+            var encodings = response.headers().get(HttpHeaders.CONTENT_ENCODING);
+            if (encodings == null || encodings.stream().noneMatch(ContentDecoding::decodedByTransport)) {
+                return response;
+            }
+            Map<String, Collection<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            headers.putAll(response.headers());
+            headers.remove(HttpHeaders.CONTENT_ENCODING);
+            return response.toBuilder().headers(headers).build();
+        };
+    }
+
+    public static InputStream decode(Response response) throws IOException {
+        var inputStream = response.body().asInputStream();
+        var encodings = response.headers().get(HttpHeaders.CONTENT_ENCODING);
+        if (encodings == null || encodings.isEmpty()) {
+            return inputStream;
+        }
+        var encoding = encodings.iterator().next().trim().toLowerCase(Locale.ROOT);
+        return switch (encoding) {
+            case "", "identity" -> inputStream;
+            case "gzip", "x-gzip" -> new GZIPInputStream(inputStream, BUFFER_SIZE);
+            case "zstd" -> new ZstdInputStreamNoFinalizer(inputStream);
+            default -> {
+                inputStream.close();
+                throw new IOException("Unsupported Content-Encoding: " + encoding);
+            }
+        };
+    }
+
+    private static boolean decodedByTransport(String encoding) {
+        return "gzip".equalsIgnoreCase(encoding) || "deflate".equalsIgnoreCase(encoding);
+    }
+}
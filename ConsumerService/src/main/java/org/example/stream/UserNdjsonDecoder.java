@@ -0,0 +1,160 @@
+package org.example.stream;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.config.DecodeProperties;
+import org.example.data.User;
+import org.example.data.UserView;
+import org.example.data.UserViewCursor;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+@Component
+@Slf4j
+public class UserNdjsonDecoder {
+    private final ObjectMapper objectMapper;
+    private final ObjectReader userReader;
+    private final boolean parallel;
+    private final int chunkSize;
+    private final int maxInFlightChunks;
+    private final ForkJoinPool pool;
+
+    public UserNdjsonDecoder(ObjectMapper objectMapper, DecodeProperties properties) {
+        this.objectMapper = objectMapper;
+        this.userReader = objectMapper.readerFor(User.class);
+        this.parallel = properties.parallel();
+        int parallelism = properties.parallelism() > 0
+                ? properties.parallelism()
+                : Runtime.getRuntime().availableProcessors();
+        this.chunkSize = (int) Math.max(1, properties.chunkSize().toBytes());
+        this.maxInFlightChunks = properties.maxInFlightChunks() > 0
+                ? properties.maxInFlightChunks()
+                : parallelism * 2;
+        this.pool = parallel ? new ForkJoinPool(parallelism) : null;
+    }
+
+    public List<User> decode(InputStream inputStream) throws IOException {
+        return parallel ? decodeParallel(inputStream) : decodeSequential(inputStream);
+    }
+
+    public List<User> decodeSequential(InputStream inputStream) throws IOException {
+        var userList = new ArrayList<User>();
+        var reader = new BufferedReader(new InputStreamReader(inputStream));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            log.debug(line);
+            var user = objectMapper.readValue(line, User.class);
+            userList.add(user);
+        }
+        return userList;
+    }
+
+    public List<User> decodeParallel(InputStream inputStream) throws IOException {
+        var userList = new ArrayList<User>();
+        var pending = new ArrayDeque<ForkJoinTask<List<User>>>();
+        try {
+            byte[] chunk = new byte[chunkSize];
+            int length = 0;
+            boolean eof = false;
+            while (!eof) {
+                int read = inputStream.readNBytes(chunk, length, chunk.length - length);
+                length += read;
+                eof = length < chunk.length;
+                int end = eof ? length : lastNewline(chunk, length) + 1;
+                if (end == 0) {
+                    // a single line longer than the chunk, keep reading into a larger one
+                    chunk = Arrays.copyOf(chunk, chunk.length << 1);
+                    continue;
+                }
+                if (end > 0) {
+                    pending.add(submit(chunk, end));
+                }
+                var next = new byte[chunkSize];
+                length -= end;
+                if (length > next.length) {
+                    next = new byte[length << 1];
+                }
+                System.arraycopy(chunk, end, next, 0, length);
+                chunk = next;
+                while (pending.size() > maxInFlightChunks || (!pending.isEmpty() && pending.peek().isDone())) {
+                    userList.addAll(pending.poll().join());
+                }
+            }
+            while (!pending.isEmpty()) {
+                userList.addAll(pending.poll().join());
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            pending.forEach(task -> task.cancel(false));
+        }
+        return userList;
+    }
+
+    public long scan(InputStream inputStream, Consumer<UserView> visitor) throws IOException {
+        var cursor = new UserViewCursor();
+        byte[] chunk = new byte[chunkSize];
+        int length = 0;
+        long users = 0;
+        boolean eof = false;
+        while (!eof) {
+            int read = inputStream.readNBytes(chunk, length, chunk.length - length);
+            length += read;
+            eof = length < chunk.length;
+            int end = eof ? length : lastNewline(chunk, length) + 1;
+            if (end == 0) {
+                chunk = Arrays.copyOf(chunk, chunk.length << 1);
+                continue;
+            }
+            cursor.reset(chunk, 0, end);
+            while (cursor.next()) {
+                visitor.accept(cursor.view());
+                users++;
+            }
+            length -= end;
+            System.arraycopy(chunk, end, chunk, 0, length);
+        }
+        return users;
+    }
+
+    private ForkJoinTask<List<User>> submit(byte[] chunk, int length) {
+        return pool.submit(() -> {
+            try (MappingIterator<User> users = userReader.readValues(chunk, 0, length)) {
+                return users.readAll();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static int lastNewline(byte[] chunk, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (chunk[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+}
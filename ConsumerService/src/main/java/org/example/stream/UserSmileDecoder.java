@@ -0,0 +1,118 @@
+package org.example.stream;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileParser;
+import org.example.config.SmileProperties;
+import org.example.data.User;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+@Component
+public class UserSmileDecoder {
+    private static final int BUFFER_SIZE = 8192;
+
+    private final ObjectReader userReader;
+    private final long maxFrameSize;
+
+    public UserSmileDecoder(MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter,
+                            SmileProperties properties) {
+        this.maxFrameSize = properties.maxFrameSize().toBytes();
+        var objectMapper = smileHttpMessageConverter.getObjectMapper();
+        var frameFactory = ((SmileFactory) objectMapper.getFactory()).copy()
+                .disable(SmileParser.Feature.REQUIRE_HEADER);
+        this.userReader = objectMapper.copyWith(frameFactory).readerFor(User.class);
+    }
+
+    public List<User> decode(InputStream inputStream) throws IOException {
+        var userList = new ArrayList<User>();
+        var frames = new FrameReader(inputStream);
+        User user;
+        while ((user = frames.next()) != null) {
+            userList.add(user);
+        }
+        return userList;
+    }
+
+    public Iterator<User> iterator(InputStream inputStream) {
+        var frames = new FrameReader(inputStream);
+        return new Iterator<>() {
+            private User next;
+
+            @Override
+            public boolean hasNext() {
+                if (next == null) {
+                    try {
+                        next = frames.next();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                return next != null;
+            }
+
+            @Override
+            public User next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                var user = next;
+                next = null;
+                return user;
+            }
+        };
+    }
+
+    private final class FrameReader {
+        private final InputStream inputStream;
+        private byte[] frame = new byte[256];
+
+        private FrameReader(InputStream inputStream) {
+            this.inputStream = new BufferedInputStream(inputStream, BUFFER_SIZE);
+        }
+
+        private User next() throws IOException {
+            int first = inputStream.read();
+            if (first < 0) {
+                return null;
+            }
+            int length = readLength(first);
+            if (length > frame.length) {
+                frame = new byte[Math.max(length, frame.length << 1)];
+            }
+            if (inputStream.readNBytes(frame, 0, length) < length) {
+                throw new EOFException("Truncated user frame");
+            }
+            return userReader.readValue(frame, 0, length);
+        }
+
+        private int readLength(int first) throws IOException {
+            long length = 0;
+            int b = first;
+            for (int shift = 0; shift < 35; shift += 7) {
+                if (b < 0) {
+                    throw new EOFException("Truncated frame length");
+                }
+                length |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    if (length > maxFrameSize) {
+                        throw new IOException("User frame of " + length + " bytes exceeds " + maxFrameSize);
+                    }
+                    return (int) length;
+                }
+                b = inputStream.read();
+            }
+            throw new IOException("Malformed frame length");
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package org.example.timing;
+
+import feign.AsyncClient;
+import feign.Client;
+import feign.RequestInterceptor;
+import feign.Response;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Times the calls a sampled request makes to an upstream service through a Feign {@link Client}.
+ */
+public final class UpstreamTiming {
+    private UpstreamTiming() {
+    }
+
+    public static Client instrument(Client client, String service) {
+        var prefix = service + ".";
+        return (request, options) -> {
+            var timing = ServerTiming.current();
+            if (timing == null) {
+                return client.execute(request, options);
+            }
+            long start = System.nanoTime();
+            Response response;
+            try {
+                response = client.execute(request, options);
+            } finally {
+                timing.record("upstream", start);
+            }
+            return timed(response, timing, prefix);
+        };
+    }
+
+    // the timing is looked up when the call is made, AsyncFeign does that on the calling thread
+    public static <C> AsyncClient<C> instrumentAsync(AsyncClient<C> client, String service) {
+        var prefix = service + ".";
+        return (request, options, context) -> {
+            var timing = ServerTiming.current();
+            if (timing == null) {
+                return client.execute(request, options, context);
+            }
+            long start = System.nanoTime();
+            return client.execute(request, options, context)
+                    .whenComplete((response, e) -> timing.record("upstream", start))
+                    .thenApply(response -> {
+                        try {
+                            return timed(response, timing, prefix);
+                        } catch (IOException e) {
+                            throw new CompletionException(e);
+                        }
+                    });
+        };
+    }
+
+    public static RequestInterceptor propagateSampling() {
+        return template -> {
+            var timing = ServerTiming.current();
+            template.header(ServerTiming.SAMPLED_HEADER, timing != null && timing.trusted() ? "1" : "0");
+        };
+    }
+
+    private static Response timed(Response response, ServerTiming timing, String prefix) throws IOException {
+        var values = response.headers().get(ServerTiming.HEADER);
+        if (values != null) {
+            timing.merge(prefix, values);
+        }
+        if (response.body() == null) {
+            return response;
+        }
+        var body = new TimedInputStream(response.body().asInputStream(), timing);
+        return response.toBuilder().body(body, response.body().length()).build();
+    }
+
+    private static final class TimedInputStream extends FilterInputStream {
+        private final ServerTiming timing;
+        private long nanos;
+        private boolean recorded;
+
+        private TimedInputStream(InputStream in, ServerTiming timing) {
+            super(in);
+            this.timing = timing;
+        }
+
+        @Override
+        public int read() throws IOException {
+            long start = System.nanoTime();
+            int b = in.read();
+            done(start, b < 0);
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            long start = System.nanoTime();
+            int read = in.read(b, off, len);
+            done(start, read < 0);
+            return read;
+        }
+
+        @Override
+        public byte[] readAllBytes() throws IOException {
+            long start = System.nanoTime();
+            var bytes = in.readAllBytes();
+            done(start, true);
+            return bytes;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                in.close();
+            } finally {
+                done(System.nanoTime(), true);
+            }
+        }
+
+        // recorded at the end of the body already, a streaming relay may close it only after its own trailer is sent
+        private void done(long start, boolean end) {
+            nanos += System.nanoTime() - start;
+            if (end && !recorded) {
+                recorded = true;
+                timing.add("transfer", nanos);
+            }
+        }
+    }
+}
@@ -1,11 +1,29 @@
 package org.example;
 
+import feign.Client;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.support.ConsumerWireMockTest;
 import org.junit.jupiter.api.Test;
-import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.openfeign.FeignClientFactory;
 
-@SpringBootTest
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ConsumerWireMockTest
 class ApplicationTests {
+    @Autowired
+    private FeignClientFactory feignClientFactory;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Test
     void contextLoads() {
     }
-}
\ No newline at end of file
+
+    @Test
+    void userServiceShouldUsePooledTransport() {
+        assertThat(feignClientFactory.getInstance("user-service", Client.class)).isNotNull();
+        assertThat(meterRegistry.get("httpcomponents.httpclient.pool.total.max").tag("httpclient", "user-service")
+                .gauge().value()).isEqualTo(200);
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.config;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import org.example.service.UserRemoteAsyncService;
+import org.example.service.UserRemoteService;
+import org.example.support.ConsumerWireMockTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.wiremock.spring.InjectWireMock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ConsumerWireMockTest(properties = {
+        "spring.cloud.openfeign.client.config.user-service.url=",
+        "spring.cloud.discovery.client.simple.instances.user-service[0].uri=${wiremock.server.baseUrl}"})
+class UserServiceLoadBalancerWireMockTest {
+    private static final String USER = """
+            {"success":true,"code":200,"msg":"Success","data":{"id":7,"name":"test","age":18}}
+            """;
+
+    @Autowired
+    private UserRemoteService userRemoteService;
+    @Autowired
+    private UserRemoteAsyncService userRemoteAsyncService;
+    @SuppressWarnings("unused")
+    @InjectWireMock
+    private WireMockServer wireMock;
+
+    @Test
+    public void callsWithoutUrlShouldResolveUserServiceThroughTheLoadBalancer() {
+        wireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/v1/user"))
+                .willReturn(WireMock.okForContentType(MediaType.APPLICATION_JSON_VALUE, USER)));
+
+        var response = userRemoteService.retrieveUser(7L);
+
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().getData().getId()).isEqualTo(7L);
+    }
+
+    @Test
+    public void asyncCallsWithoutUrlShouldResolveUserServiceThroughTheLoadBalancer() {
+        wireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/v1/user"))
+                .willReturn(WireMock.okForContentType(MediaType.APPLICATION_JSON_VALUE, USER)));
+
+        var response = userRemoteAsyncService.retrieveUser(7L).join();
+
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().getData().getId()).isEqualTo(7L);
+    }
+}
@@ -0,0 +1,138 @@
+package org.example.controller;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.deadline.Deadline;
+import org.example.support.ConsumerWireMockTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import org.wiremock.spring.InjectWireMock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ConsumerWireMockTest
+class UserAsyncControllerWireMockTest {
+    private static final String USER = """
+            {
+                "success": true,
+                "code": 200,
+                "msg": "Success",
+                "data": {
+                    "id": 1,
+                    "name": "test",
+                    "age": 18
+                }
+            }
+            """;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @SuppressWarnings("unused")
+    @InjectWireMock
+    private WireMockServer wireMock;
+
+    @Test
+    public void createUserShouldSuccess() throws Exception {
+        wireMock.stubFor(WireMock.post(WireMock.urlEqualTo("/v1/user"))
+                .withRequestBody(WireMock.equalToJson("""
+                        {"id": null, "name": "test", "age": 18}
+                        """))
+                .willReturn(WireMock.okForContentType(MediaType.APPLICATION_JSON_VALUE, USER)));
+        performAsync(post("/v1/async/user")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.id").value(1))
+                .andExpect(jsonPath("$.data.name").value("test"))
+                .andExpect(jsonPath("$.data.age").value(18));
+    }
+
+    @Test
+    public void retrieveUserShouldSuccess() throws Exception {
+        wireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/v1/user"))
+                .withQueryParam("id", WireMock.equalTo("1"))
+                .willReturn(WireMock.okForContentType(MediaType.APPLICATION_JSON_VALUE, USER)));
+        performAsync(get("/v1/async/user"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.code").value(200))
+                .andExpect(jsonPath("$.data.id").value(1));
+    }
+
+    @Test
+    public void retrieveUserShouldFailedWhenRemoteServiceOccurredError() throws Exception {
+        wireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/v1/user"))
+                .withQueryParam("id", WireMock.equalTo("1"))
+                .willReturn(WireMock.serverError()
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBody("""
+                                {"success":false,"code":500,"msg":"Internal Server Error","data":null}
+                                """)));
+        performAsync(get("/v1/async/user"))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.code").value(500))
+                .andExpect(jsonPath("$.msg").value(org.hamcrest.Matchers.startsWith("[500] during [GET]")))
+                .andExpect(jsonPath("$.data").doesNotExist());
+    }
+
+    @Test
+    public void updateUserShouldSuccess() throws Exception {
+        wireMock.stubFor(WireMock.put(WireMock.urlEqualTo("/v1/user"))
+                .willReturn(WireMock.okForContentType(MediaType.APPLICATION_JSON_VALUE, USER)));
+        performAsync(put("/v1/async/user")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.id").value(1));
+    }
+
+    @Test
+    public void deleteUserShouldSuccess() throws Exception {
+        wireMock.stubFor(WireMock.delete(WireMock.urlPathEqualTo("/v1/user"))
+                .withQueryParam("id", WireMock.equalTo("1"))
+                .willReturn(WireMock.okForContentType(MediaType.APPLICATION_JSON_VALUE, """
+                        {"success":true,"code":200,"msg":"Success","data":null}
+                        """)));
+        performAsync(delete("/v1/async/user"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data").doesNotExist());
+    }
+
+    @Test
+    public void deleteUserShouldCarryTheDeadlineAndRecordRemoteMetrics() throws Exception {
+        wireMock.stubFor(WireMock.delete(WireMock.urlPathEqualTo("/v1/user"))
+                .willReturn(WireMock.okForContentType(MediaType.APPLICATION_JSON_VALUE, """
+                        {"success":true,"code":200,"msg":"Success","data":null}
+                        """)));
+        var requests = meterRegistry.timer("user.remote.requests", "method", "deleteUser", "status", "200",
+                "outcome", "SUCCESS");
+        long before = requests.count();
+
+        performAsync(delete("/v1/async/user")
+                .header(Deadline.HEADER, "5000"))
+                .andExpect(status().isOk());
+
+        wireMock.verify(WireMock.deleteRequestedFor(WireMock.urlPathEqualTo("/v1/user"))
+                .withHeader(Deadline.HEADER, WireMock.matching("\\d{1,4}")));
+        assertThat(requests.count() - before).isEqualTo(1);
+    }
+
+    private ResultActions performAsync(RequestBuilder requestBuilder) throws Exception {
+        var mvcResult = mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(mvcResult));
+    }
+}
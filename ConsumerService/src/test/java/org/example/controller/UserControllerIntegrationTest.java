@@ -5,7 +5,10 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.example.data.User;
 import org.example.response.ResultResponse;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -13,7 +16,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
-import java.util.ArrayList;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -23,6 +26,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @AutoConfigureMockMvc
 @ActiveProfiles("local")
 @Slf4j
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 class UserControllerIntegrationTest {
     @Autowired
     private MockMvc mockMvc;
@@ -30,6 +34,7 @@ class UserControllerIntegrationTest {
     private ObjectMapper objectMapper;
 
     @Test
+    @Order(1)
     public void testCreateUser() throws Exception {
         mockMvc.perform(post("/v1/user")
                         .contentType(MediaType.APPLICATION_JSON))
@@ -44,6 +49,7 @@ class UserControllerIntegrationTest {
     }
 
     @Test
+    @Order(2)
     public void testRetrieveUser() throws Exception {
         mockMvc.perform(get("/v1/user")
                         .contentType(MediaType.APPLICATION_JSON))
@@ -59,6 +65,7 @@ class UserControllerIntegrationTest {
     }
 
     @Test
+    @Order(3)
     public void testUpdateUser() throws Exception {
         mockMvc.perform(put("/v1/user")
                         .contentType(MediaType.APPLICATION_JSON))
@@ -68,10 +75,11 @@ class UserControllerIntegrationTest {
                 .andExpect(jsonPath("$.code").value(200))
                 .andExpect(jsonPath("$.msg").value("Success"))
                 .andExpect(jsonPath("$.data.id").value(1))
-                .andExpect(jsonPath("$.data.name").value("updated"));
+                .andExpect(jsonPath("$.data.name").value("test"));
     }
 
     @Test
+    @Order(5)
     public void testDeleteUser() throws Exception {
         mockMvc.perform(delete("/v1/user"))
                 .andExpect(status().isOk())
@@ -83,12 +91,9 @@ class UserControllerIntegrationTest {
     }
 
     @Test
+    @Order(4)
     public void testExtractUsers() throws Exception {
-        var users = new ArrayList<User>();
-        for (int i = 1; i <= 18; i++) {
-            User user = User.builder().id((long) i).name("test" + i).age(i).build();
-            users.add(user);
-        }
+        var user = User.builder().id(1L).name("test").age(18).build();
         var mvcResult = mockMvc.perform(get("/v1/users")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
@@ -98,6 +103,6 @@ class UserControllerIntegrationTest {
                 .andExpect(jsonPath("$.msg").value("Success"))
                 .andReturn();
         assertThat(mvcResult.getResponse().getContentAsString())
-                .isEqualTo(objectMapper.writeValueAsString(ResultResponse.success(users)));
+                .isEqualTo(objectMapper.writeValueAsString(ResultResponse.success(List.of(user))));
     }
 }
\ No newline at end of file
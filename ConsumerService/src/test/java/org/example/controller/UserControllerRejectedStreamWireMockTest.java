@@ -0,0 +1,64 @@
+package org.example.controller;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.support.ConsumerWireMockTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.wiremock.spring.InjectWireMock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@ConsumerWireMockTest(properties = {
+        "consumer.limit.enabled=true",
+        "consumer.limit.export.initial-limit=1", "consumer.limit.export.min-limit=1",
+        "consumer.limit.export.max-limit=1"})
+class UserControllerRejectedStreamWireMockTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @SuppressWarnings("unused")
+    @InjectWireMock
+    private WireMockServer wireMock;
+
+    @Test
+    public void exportsWhoseBodyNeverRunsShouldGiveBackTheirSlot() throws Exception {
+        wireMock.stubFor(WireMock.get(WireMock.urlEqualTo("/v1/users"))
+                .willReturn(WireMock.okForContentType(MediaType.APPLICATION_JSON_VALUE, """
+                        {"success":true,"code":200,"msg":"Success","data":[{"id":1,"name":"test","age":18}]}
+                        """)));
+
+        for (var accept : new MediaType[]{MediaType.APPLICATION_JSON, MediaType.APPLICATION_NDJSON}) {
+            var mvcResult = mockMvc.perform(get("/v1/users").param("stream", "true").accept(accept))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            // ended by the container once the rejection is dispatched, MockMvc never sees the rejected task's result
+            mvcResult.getRequest().getAsyncContext().complete();
+
+            assertThat(meterRegistry.get("user.remote.inflight").tag("method", "extractUsers").gauge().value())
+                    .isZero();
+        }
+        wireMock.verify(2, WireMock.getRequestedFor(WireMock.urlEqualTo("/v1/users")));
+    }
+
+    @TestConfiguration
+    static class RejectingAsyncConfiguration implements WebMvcConfigurer {
+        @Override
+        public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+            configurer.setTaskExecutor(new TaskExecutorAdapter(task -> {
+                throw new TaskRejectedException("Streaming body rejected");
+            }));
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package org.example.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import org.example.config.SmileConfiguration;
+import org.example.data.User;
+import org.example.response.ResultResponse;
+import org.example.support.ConsumerWireMockTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.wiremock.spring.InjectWireMock;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ConsumerWireMockTest(properties = "consumer.smile.enabled=true")
+class UserControllerSmileWireMockTest {
+    private final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+    private final ObjectMapper frameMapper = new ObjectMapper(SmileFactory.builder()
+            .disable(SmileGenerator.Feature.WRITE_HEADER)
+            .disable(SmileGenerator.Feature.CHECK_SHARED_NAMES)
+            .build());
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @SuppressWarnings("unused")
+    @InjectWireMock
+    private WireMockServer wireMock;
+
+    @Test
+    public void createUserShouldSendAndReadSmile() throws Exception {
+        var user = User.builder().name("test").age(18).build();
+        wireMock.stubFor(WireMock.post(WireMock.urlEqualTo("/v1/user"))
+                .withHeader(HttpHeaders.CONTENT_TYPE, WireMock.equalTo(SmileConfiguration.APPLICATION_SMILE_VALUE))
+                .withHeader(HttpHeaders.ACCEPT, WireMock.containing(SmileConfiguration.APPLICATION_SMILE_VALUE))
+                .willReturn(WireMock.ok()
+                        .withHeader(HttpHeaders.CONTENT_TYPE, SmileConfiguration.APPLICATION_SMILE_VALUE)
+                        .withBody(smileMapper.writeValueAsBytes(ResultResponse.success(new User(1L, "test", 18))))));
+
+        mockMvc.perform(post("/v1/user")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.id").value(1))
+                .andExpect(jsonPath("$.data.name").value("test"));
+        var sent = wireMock.findAll(WireMock.postRequestedFor(WireMock.urlEqualTo("/v1/user")));
+        assertThat(sent).hasSize(1);
+        assertThat(smileMapper.readValue(sent.get(0).getBody(), User.class)).isEqualTo(user);
+    }
+
+    @Test
+    public void extractUsersShouldDecodeSmileFrames() throws Exception {
+        var users = new ArrayList<User>();
+        var frames = new ByteArrayOutputStream();
+        for (int i = 1; i <= 200; i++) {
+            User user = User.builder().id((long) i).name("test" + i).age(i).build();
+            users.add(user);
+            var frame = frameMapper.writeValueAsBytes(user);
+            frames.write(frame.length);
+            frames.write(frame);
+        }
+        wireMock.stubFor(WireMock.get(WireMock.urlEqualTo("/v1/users"))
+                .withHeader(HttpHeaders.ACCEPT, WireMock.containing(SmileConfiguration.APPLICATION_SMILE_VALUE))
+                .willReturn(WireMock.ok()
+                        .withHeader(HttpHeaders.CONTENT_TYPE, SmileConfiguration.APPLICATION_SMILE_VALUE)
+                        .withBody(frames.toByteArray())));
+
+        var mvcResult = mockMvc.perform(get("/v1/users"))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertThat(mvcResult.getResponse().getContentAsString())
+                .isEqualTo(objectMapper.writeValueAsString(ResultResponse.success(users)));
+
+        var relayed = mockMvc.perform(get("/v1/users")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(relayed))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON));
+        assertThat(relayed.getResponse().getContentAsString().lines())
+                .hasSize(200)
+                .startsWith(objectMapper.writeValueAsString(users.get(0)));
+    }
+}
@@ -2,33 +2,36 @@ package org.example.controller;
 
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.luben.zstd.Zstd;
 import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.client.WireMock;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.example.data.User;
 import org.example.response.ResultResponse;
+import org.example.support.ConsumerWireMockTest;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
-import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
-import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
-import org.wiremock.spring.EnableWireMock;
 import org.wiremock.spring.InjectWireMock;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.anyOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.startsWith;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 
-@SpringBootTest
-@AutoConfigureMockMvc
-@ActiveProfiles("test")
-@EnableWireMock
+@ConsumerWireMockTest
 class UserControllerWireMockMappingTest {
     @Autowired
     private MockMvc mockMvc;
@@ -106,13 +109,59 @@ class UserControllerWireMockMappingTest {
         assertThat(mvcResult.getResponse().getContentAsString())
                 .isEqualTo(objectMapper.writeValueAsString(ResultResponse.success(users)));
     }
+
+    @Test
+    public void extractUsersShouldStreamEnvelope() throws Exception {
+        var users = new ArrayList<User>();
+        for (int i = 1; i <= 18; i++) {
+            User user = User.builder().id((long) i).name("test" + i).age(i).build();
+            users.add(user);
+        }
+        var mvcResult = mockMvc.perform(get("/v1/users")
+                        .param("stream", "true")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.code").value(200))
+                .andExpect(jsonPath("$.msg").value("Success"));
+        assertThat(mvcResult.getResponse().getContentAsString())
+                .isEqualTo(objectMapper.writeValueAsString(ResultResponse.success(users)));
+    }
+
+    @Test
+    public void extractUsersShouldRelayNdjson() throws Exception {
+        var mvcResult = mockMvc.perform(get("/v1/users")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON));
+        assertThat(mvcResult.getResponse().getContentAsString().lines())
+                .hasSize(18)
+                .startsWith("{\"id\":1,\"name\":\"test1\",\"age\":1}");
+    }
+
+    @Test
+    public void summarizeUsersShouldSuccess() throws Exception {
+        mockMvc.perform(get("/v1/users/summary"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.users").value(18))
+                .andExpect(jsonPath("$.data.usersWithAge").value(18))
+                .andExpect(jsonPath("$.data.minAge").value(1))
+                .andExpect(jsonPath("$.data.maxAge").value(18))
+                .andExpect(jsonPath("$.data.averageAge").value(9.5));
+    }
 }
 
 @SuppressWarnings("SpellCheckingInspection")
-@SpringBootTest
-@AutoConfigureMockMvc
-@ActiveProfiles("test")
-@EnableWireMock
+@ConsumerWireMockTest
 class UserControllerWireMockProgrammingTest {
     @Autowired
     private MockMvc mockMvc;
@@ -123,6 +172,8 @@ class UserControllerWireMockProgrammingTest {
     private WireMockServer wireMock;
     @Value("${wiremock.server.baseUrl}")
     private String wiremockBaseUrl;
+    @Autowired
+    private MeterRegistry meterRegistry;
 
 
     @Test
@@ -554,6 +605,113 @@ class UserControllerWireMockProgrammingTest {
         wireMock.verify(WireMock.getRequestedFor(WireMock.urlEqualTo("/v1/users")));
     }
 
+    @Test
+    public void extractUsersShouldDecodeCompressedExport() throws Exception {
+        var users = new ArrayList<User>();
+        var ndjson = new StringBuilder();
+        for (int i = 1; i <= 18; i++) {
+            User user = User.builder().id((long) i).name("test" + i).age(i).build();
+            users.add(user);
+            ndjson.append(objectMapper.writeValueAsString(user)).append('\n');
+        }
+        wireMock.stubFor(WireMock.get(WireMock.urlEqualTo("/v1/users"))
+                .withHeader(HttpHeaders.ACCEPT_ENCODING, WireMock.containing("zstd"))
+                .willReturn(WireMock.ok()
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withHeader(HttpHeaders.CONTENT_ENCODING, "zstd")
+                        .withBody(Zstd.compress(ndjson.toString().getBytes(StandardCharsets.UTF_8)))
+                        .withGzipDisabled(true)));
+        var mvcResult = mockMvc.perform(get("/v1/users")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andReturn();
+        assertThat(mvcResult.getResponse().getContentAsString())
+                .isEqualTo(objectMapper.writeValueAsString(ResultResponse.success(users)));
+    }
+
+    @Test
+    public void extractUsersShouldRecordRemoteMetrics() throws Exception {
+        var ndjson = new StringBuilder();
+        for (int i = 1; i <= 18; i++) {
+            ndjson.append(objectMapper.writeValueAsString(User.builder().id((long) i).name("test" + i).age(i).build()))
+                    .append('\n');
+        }
+        wireMock.stubFor(WireMock.get(WireMock.urlEqualTo("/v1/users"))
+                .willReturn(WireMock.okForContentType(MediaType.APPLICATION_JSON_VALUE, ndjson.toString())
+                        .withHeader(HttpHeaders.CONTENT_ENCODING, "identity")
+                        .withGzipDisabled(true)));
+        var requests = meterRegistry.timer("user.remote.requests", "method", "extractUsers", "status", "200",
+                "outcome", "SUCCESS");
+        var responseSize = meterRegistry.summary("user.remote.response.size", "method", "extractUsers");
+        var records = meterRegistry.counter("user.remote.extracted.records", "method", "extractUsers");
+        long requestsBefore = requests.count();
+        double bytesBefore = responseSize.totalAmount();
+        double recordsBefore = records.count();
+
+        var mvcResult = mockMvc.perform(get("/v1/users")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/v1/users/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.users").value(18));
+
+        assertThat(requests.count() - requestsBefore).isEqualTo(2);
+        assertThat(responseSize.totalAmount() - bytesBefore).isEqualTo(2.0 * ndjson.length());
+        assertThat(records.count() - recordsBefore).isEqualTo(36);
+    }
+
+    @Test
+    public void summarizeUsersShouldReportServerTiming() throws Exception {
+        wireMock.stubFor(WireMock.get(WireMock.urlEqualTo("/v1/users"))
+                .willReturn(WireMock.okForContentType(MediaType.APPLICATION_JSON_VALUE,
+                                objectMapper.writeValueAsString(User.builder().id(1L).name("test").age(18).build()) + "\n")
+                        .withHeader(HttpHeaders.CONTENT_ENCODING, "identity")
+                        .withHeader("Server-Timing", "handler;dur=1.000")
+                        .withGzipDisabled(true)));
+
+        mockMvc.perform(get("/v1/users/summary")
+                        .header("Server-Timing-Sampled", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Server-Timing", matchesPattern(
+                        "upstream;dur=\\d+\\.\\d{3}, transfer;dur=\\d+\\.\\d{3}, decode;dur=\\d+\\.\\d{3}, "
+                                + "handler;dur=\\d+\\.\\d{3}, user-service\\.handler;dur=1\\.000")));
+        wireMock.verify(WireMock.getRequestedFor(WireMock.urlEqualTo("/v1/users"))
+                .withHeader("Server-Timing-Sampled", WireMock.equalTo("1")));
+
+        mockMvc.perform(get("/v1/users/summary")
+                        .header("Server-Timing-Sampled", "0"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Server-Timing"));
+        wireMock.verify(WireMock.getRequestedFor(WireMock.urlEqualTo("/v1/users"))
+                .withHeader("Server-Timing-Sampled", WireMock.equalTo("0")));
+    }
+
+    @Test
+    public void summarizeUsersShouldNotReportUpstreamTimingToUntrustedCallers() throws Exception {
+        wireMock.stubFor(WireMock.get(WireMock.urlEqualTo("/v1/users"))
+                .willReturn(WireMock.okForContentType(MediaType.APPLICATION_JSON_VALUE,
+                                objectMapper.writeValueAsString(User.builder().id(1L).name("test").age(18).build()) + "\n")
+                        .withHeader(HttpHeaders.CONTENT_ENCODING, "identity")
+                        .withHeader("Server-Timing", "handler;dur=1.000")
+                        .withGzipDisabled(true)));
+
+        // sampled at most at the configured rate, never with user-service's timings
+        mockMvc.perform(get("/v1/users/summary")
+                        .header("Server-Timing-Sampled", "1")
+                        .with(request -> {
+                            request.setRemoteAddr("203.0.113.9");
+                            return request;
+                        }))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Server-Timing", anyOf(nullValue(), not(containsString("user-service")))));
+        wireMock.verify(WireMock.getRequestedFor(WireMock.urlEqualTo("/v1/users"))
+                .withHeader("Server-Timing-Sampled", WireMock.equalTo("0")));
+    }
+
     @Test
     public void extractUsersShouldFailedWhenRemoteServiceNotAvailable() throws Exception {
         wireMock.stubFor(WireMock.get(WireMock.urlEqualTo("/v1/users"))
@@ -601,4 +759,19 @@ class UserControllerWireMockProgrammingTest {
                 .andExpect(jsonPath("$.data").doesNotExist());
         wireMock.verify(WireMock.getRequestedFor(WireMock.urlEqualTo("/v1/users")));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void extractUsersShouldFailedWhenRemoteServiceAnswersNonStandardStatus() throws Exception {
+        wireMock.stubFor(WireMock.get(WireMock.urlEqualTo("/v1/users"))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(599)
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBody("{}")));
+        mockMvc.perform(get("/v1/users")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.msg").value(startsWith("[599 ")));
+        wireMock.verify(WireMock.getRequestedFor(WireMock.urlEqualTo("/v1/users")));
+    }
+}
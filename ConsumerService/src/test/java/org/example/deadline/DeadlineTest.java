@@ -0,0 +1,32 @@
+package org.example.deadline;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeadlineTest {
+    @Test
+    void remainingMillisShouldRoundUpWithinBudget() {
+        var deadline = new Deadline(5_000);
+
+        assertThat(deadline.expired()).isFalse();
+        assertThat(deadline.remainingMillis()).isBetween(1L, 5_000L);
+    }
+
+    @Test
+    void hugeBudgetShouldNotOverflow() {
+        var deadline = new Deadline(Long.MAX_VALUE);
+
+        assertThat(deadline.expired()).isFalse();
+        assertThat(deadline.remainingMillis()).isGreaterThan(Long.MAX_VALUE / 2_000_000);
+    }
+
+    @Test
+    void remainingMillisShouldBeZeroOnceBudgetIsSpent() {
+        var deadline = new Deadline(0);
+
+        assertThat(deadline.expired()).isTrue();
+        assertThat(deadline.remainingMillis()).isZero();
+        assertThat(deadline.remainingNanos()).isNotPositive();
+    }
+}
@@ -0,0 +1,43 @@
+package org.example.deadline;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UpstreamDeadlineTest {
+    @AfterEach
+    void resetRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void onlyTheReadTimeoutShouldBeBounded() throws Exception {
+        var servletRequest = new MockHttpServletRequest();
+        servletRequest.setAttribute(Deadline.ATTRIBUTE, new Deadline(500));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(servletRequest));
+        var sent = new AtomicReference<Request.Options>();
+        Client client = UpstreamDeadline.instrument((request, options) -> {
+            sent.set(options);
+            return Response.builder().status(200).request(request).build();
+        }, "user-service");
+        var request = Request.create(Request.HttpMethod.GET, "http://localhost/v1/user", Map.of(), null,
+                StandardCharsets.UTF_8, null);
+
+        client.execute(request, new Request.Options(2, TimeUnit.SECONDS, 10, TimeUnit.SECONDS, true));
+
+        assertThat(sent.get().connectTimeoutMillis()).isEqualTo(2_000);
+        assertThat(sent.get().readTimeoutMillis()).isBetween(1, 500);
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.deadline;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import org.example.support.ConsumerWireMockTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.wiremock.spring.InjectWireMock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ConsumerWireMockTest
+class UpstreamDeadlineWireMockTest {
+    private static final String DELETED = """
+            {"success":true,"code":200,"msg":"Success","data":null}
+            """;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @SuppressWarnings("unused")
+    @InjectWireMock
+    private WireMockServer wireMock;
+
+    @Test
+    public void callsShouldCarryTheRemainingBudget() throws Exception {
+        wireMock.stubFor(WireMock.delete(WireMock.urlPathEqualTo("/v1/user"))
+                .willReturn(WireMock.okForContentType(MediaType.APPLICATION_JSON_VALUE, DELETED)));
+
+        mockMvc.perform(delete("/v1/user")
+                        .header(Deadline.HEADER, "5000"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/v1/user"))
+                .andExpect(status().isOk());
+
+        var budgets = wireMock.findAll(WireMock.deleteRequestedFor(WireMock.urlPathEqualTo("/v1/user"))).stream()
+                .map(request -> Long.parseLong(request.getHeader(Deadline.HEADER)))
+                .toList();
+        assertThat(budgets).hasSize(2);
+        // the caller's budget, then consumer.deadline.budget
+        assertThat(budgets.get(0)).isBetween(1L, 5_000L);
+        assertThat(budgets.get(1)).isBetween(5_001L, 30_000L);
+    }
+
+    @Test
+    public void callersShouldNotRaiseTheBudget() throws Exception {
+        wireMock.stubFor(WireMock.delete(WireMock.urlPathEqualTo("/v1/user"))
+                .willReturn(WireMock.okForContentType(MediaType.APPLICATION_JSON_VALUE, DELETED)));
+
+        mockMvc.perform(delete("/v1/user")
+                        .header(Deadline.HEADER, String.valueOf(Long.MAX_VALUE)))
+                .andExpect(status().isOk());
+
+        var sent = wireMock.findAll(WireMock.deleteRequestedFor(WireMock.urlPathEqualTo("/v1/user")));
+        assertThat(sent).hasSize(1);
+        assertThat(Long.parseLong(sent.get(0).getHeader(Deadline.HEADER))).isBetween(1L, 30_000L);
+    }
+
+    @Test
+    public void callsShouldFailAtTheDeadline() throws Exception {
+        wireMock.stubFor(WireMock.delete(WireMock.urlPathEqualTo("/v1/user"))
+                .willReturn(WireMock.okForContentType(MediaType.APPLICATION_JSON_VALUE, DELETED)
+                        .withFixedDelay(3000)));
+
+        long start = System.nanoTime();
+        mockMvc.perform(delete("/v1/user")
+                        .header(Deadline.HEADER, "300"))
+                .andExpect(status().isGatewayTimeout())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.code").value(504));
+
+        assertThat(System.nanoTime() - start).isLessThan(2_000_000_000L);
+    }
+
+    @Test
+    public void lateRequestsShouldNotCallUpstream() throws Exception {
+        mockMvc.perform(delete("/v1/user")
+                        .header(Deadline.HEADER, "0"))
+                .andExpect(status().isGatewayTimeout())
+                .andExpect(jsonPath("$.code").value(504));
+
+        wireMock.verify(0, WireMock.anyRequestedFor(WireMock.anyUrl()));
+    }
+}
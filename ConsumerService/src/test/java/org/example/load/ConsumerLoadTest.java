@@ -0,0 +1,96 @@
+package org.example.load;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class ConsumerLoadTest {
+    private static ProducerStandIn producerStandIn;
+
+    @Autowired
+    private LoadProperties properties;
+    @LocalServerPort
+    private int port;
+
+    @TestConfiguration
+    @EnableConfigurationProperties(LoadProperties.class)
+    static class LoadConfiguration {
+    }
+
+    @DynamicPropertySource
+    static void producer(DynamicPropertyRegistry registry) {
+        producerStandIn = new ProducerStandIn(Integer.getInteger("load.producer.threads", 200));
+        registry.add("wiremock.server.baseUrl", producerStandIn::baseUrl);
+    }
+
+    @AfterAll
+    static void stopProducer() {
+        producerStandIn.stop();
+    }
+
+    @Test
+    void loadEndpoints() throws Exception {
+        producerStandIn.configure(properties.producer());
+        var httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        var generator = new OpenLoadGenerator(httpClient, properties.maxOutstanding());
+        var results = new ArrayList<OpenLoadGenerator.Result>();
+        for (String endpoint : properties.endpoints()) {
+            int at = endpoint.lastIndexOf('@');
+            String[] request = endpoint.substring(0, at).trim().split("\\s+");
+            int rate = Integer.parseInt(endpoint.substring(at + 1).trim());
+            results.add(generator.run(request[0] + " " + request[1], HttpRequest.newBuilder()
+                    .uri(URI.create("http://localhost:" + port + request[1]))
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .method(request[0], HttpRequest.BodyPublishers.noBody())
+                    .build(), rate, properties.warmup(), properties.duration()));
+        }
+        report(results);
+
+        assertThat(results).allSatisfy(result -> assertThat(result.ok()).isPositive());
+    }
+
+    private void report(List<OpenLoadGenerator.Result> results) throws IOException {
+        var producer = properties.producer();
+        System.out.printf("%nproducer stand-in: latency %s, delay %s, max delay %s, sigma %s, slow %.2f%%, "
+                        + "faults %s at %.2f%%%n", producer.latency(), producer.delay(), producer.maxDelay(),
+                producer.sigma(), producer.slowRate() * 100, producer.fault(), producer.faultRate() * 100);
+        System.out.printf("%-30s %6s %8s %7s %8s %9s %9s %9s %9s %9s%n", "endpoint", "rate", "ok", "errors",
+                "dropped", "ok/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        var directory = Files.createDirectories(Path.of("target", "load"));
+        for (var result : results) {
+            System.out.printf("%-30s %6d %8d %7d %8d %9.1f %9.2f %9.2f %9.2f %9.2f%n", result.name(), result.rate(),
+                    result.ok(), result.errors(), result.dropped(), result.throughput(),
+                    result.percentileMillis(50), result.percentileMillis(99), result.percentileMillis(99.9),
+                    result.latencies().getMaxValue() / 1e6);
+            var file = directory.resolve(result.name().replaceAll("[^A-Za-z0-9]+", "_") + ".hgrm");
+            try (var out = new PrintStream(Files.newOutputStream(file))) {
+                result.latencies().outputPercentileDistribution(out, 1e6);
+            }
+        }
+    }
+}
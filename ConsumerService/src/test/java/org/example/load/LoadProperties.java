@@ -0,0 +1,42 @@
+package org.example.load;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "load")
+public record LoadProperties(@DefaultValue({"GET /v1/user@200", "POST /v1/user@200", "GET /v1/users@2",
+                                     "GET /v1/users?stream=true@2", "GET /v1/users/summary@2"}) List<String> endpoints,
+                             @DefaultValue("5s") Duration warmup,
+                             @DefaultValue("20s") Duration duration,
+                             @DefaultValue("2000") int maxOutstanding,
+                             @DefaultValue Producer producer) {
+    public record Producer(@DefaultValue("lognormal") Latency latency,
+                           @DefaultValue("20ms") Duration delay,
+                           @DefaultValue("100ms") Duration maxDelay,
+                           @DefaultValue("0.5") double sigma,
+                           @DefaultValue("0.01") double slowRate,
+                           @DefaultValue("0") double faultRate,
+                           @DefaultValue("status") Fault fault,
+                           @DefaultValue("100000") int users,
+                           @DefaultValue("200") int threads) {
+    }
+
+    public enum Latency {
+        NONE,
+        FIXED,
+        UNIFORM,
+        LOGNORMAL,
+        // GC pauses and cold connections: most responses take delay, a few take maxDelay
+        BIMODAL
+    }
+
+    public enum Fault {
+        // a 500 with the service's error envelope
+        STATUS,
+        // the connection is reset before any response
+        RESET
+    }
+}
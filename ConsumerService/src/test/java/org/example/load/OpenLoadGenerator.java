@@ -0,0 +1,82 @@
+package org.example.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends requests at a constant rate, whether or not earlier ones have completed (an open workload model).
+ */
+class OpenLoadGenerator {
+    private static final long HIGHEST_LATENCY = TimeUnit.MINUTES.toNanos(5);
+
+    private final HttpClient httpClient;
+    private final int maxOutstanding;
+
+    OpenLoadGenerator(HttpClient httpClient, int maxOutstanding) {
+        this.httpClient = httpClient;
+        this.maxOutstanding = maxOutstanding;
+    }
+
+    Result run(String name, HttpRequest request, int rate, Duration warmup, Duration duration)
+            throws InterruptedException {
+        var latencies = new ConcurrentHistogram(HIGHEST_LATENCY, 3);
+        var ok = new LongAdder();
+        var errors = new LongAdder();
+        long dropped = 0;
+        var outstanding = new Semaphore(maxOutstanding);
+        long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        for (long scheduled = start; scheduled < end; scheduled += interval) {
+            long wait;
+            while ((wait = scheduled - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            boolean measured = scheduled >= measureFrom;
+            if (!outstanding.tryAcquire()) {
+                if (measured) {
+                    dropped++;
+                }
+                continue;
+            }
+            long intended = scheduled;
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                long latency = System.nanoTime() - intended;
+                outstanding.release();
+                if (!measured) {
+                    return;
+                }
+                latencies.recordValue(Math.min(latency, HIGHEST_LATENCY));
+                if (error == null && response.statusCode() < 400) {
+                    ok.increment();
+                } else {
+                    errors.increment();
+                }
+            });
+        }
+        if (!outstanding.tryAcquire(maxOutstanding, 1, TimeUnit.MINUTES)) {
+            throw new IllegalStateException(name + ": requests still open a minute after the run");
+        }
+        return new Result(name, rate, ok.sum(), errors.sum(), dropped, duration, latencies);
+    }
+
+    record Result(String name, int rate, long ok, long errors, long dropped, Duration duration, Histogram latencies) {
+        double throughput() {
+            return ok * 1000.0 / duration.toMillis();
+        }
+
+        double percentileMillis(double percentile) {
+            return latencies.getValueAtPercentile(percentile) / 1e6;
+        }
+    }
+}
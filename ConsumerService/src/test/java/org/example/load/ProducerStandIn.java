@@ -0,0 +1,139 @@
+package org.example.load;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformerV2;
+import com.github.tomakehurst.wiremock.global.GlobalSettings;
+import com.github.tomakehurst.wiremock.http.DelayDistribution;
+import com.github.tomakehurst.wiremock.http.Fault;
+import com.github.tomakehurst.wiremock.http.FixedDelayDistribution;
+import com.github.tomakehurst.wiremock.http.LogNormal;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.http.UniformDistribution;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+
+class ProducerStandIn {
+    private static final String SUCCESS = "{\"success\":true,\"code\":200,\"msg\":\"Success\",\"data\":%s}";
+
+    private final FaultInjector faultInjector = new FaultInjector();
+    private final WireMockServer server;
+
+    ProducerStandIn(int threads) {
+        server = new WireMockServer(options()
+                .dynamicPort()
+                .containerThreads(threads)
+                // nothing is verified, and recording every request would grow without bound
+                .disableRequestJournal()
+                // delayed responses wait on a scheduler instead of holding a container thread
+                .asynchronousResponseEnabled(true)
+                .asynchronousResponseThreads(threads)
+                .extensions(faultInjector));
+        server.start();
+    }
+
+    String baseUrl() {
+        return server.baseUrl();
+    }
+
+    void configure(LoadProperties.Producer properties) {
+        server.resetAll();
+        server.updateGlobalSettings(GlobalSettings.builder().delayDistribution(delay(properties)).build());
+        faultInjector.faultRate = properties.faultRate();
+        faultInjector.fault = properties.fault();
+        server.stubFor(WireMock.get(WireMock.urlPathEqualTo("/v1/user"))
+                .willReturn(json("""
+                        {"id":{{request.query.id}},"name":"test","age":18}""")
+                        .withHeader(HttpHeaders.ETAG, "\"{{request.query.id}}-0\"")));
+        server.stubFor(WireMock.post(WireMock.urlPathEqualTo("/v1/user"))
+                .willReturn(json("""
+                        {"id":{{randomInt lower=1}},"name":"{{jsonPath request.body '$.name'}}","age":18}""")));
+        server.stubFor(WireMock.post(WireMock.urlPathEqualTo("/v1/users/batch"))
+                .willReturn(json("""
+                        [{{#each (parseJson request.body) as |user|}}{{#unless @first}},{{/unless}}\
+                        {"success":true,"code":200,"msg":"Success",\
+                        "data":{"id":{{randomInt lower=1}},"name":"{{user.name}}","age":{{user.age}} }}{{/each}}]""")));
+        server.stubFor(WireMock.put(WireMock.urlPathEqualTo("/v1/user"))
+                .willReturn(json("""
+                        {"id":1,"name":"updated","age":18}""")));
+        server.stubFor(WireMock.delete(WireMock.urlPathEqualTo("/v1/user"))
+                .willReturn(json("null")));
+        server.stubFor(WireMock.get(WireMock.urlPathEqualTo("/v1/users"))
+                .willReturn(WireMock.ok()
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_NDJSON_VALUE)
+                        // an explicit coding also keeps Jetty from gzipping it, which withGzipDisabled does with "none"
+                        .withHeader(HttpHeaders.CONTENT_ENCODING, "identity")
+                        .withBody(export(properties.users()))));
+    }
+
+    void stop() {
+        server.stop();
+    }
+
+    private static ResponseDefinitionBuilder json(String data) {
+        return WireMock.okForContentType(MediaType.APPLICATION_JSON_VALUE, SUCCESS.formatted(data))
+                .withTransformers("response-template")
+                .withGzipDisabled(true);
+    }
+
+    private static DelayDistribution delay(LoadProperties.Producer properties) {
+        long delay = properties.delay().toMillis();
+        return switch (properties.latency()) {
+            case NONE -> null;
+            case FIXED -> new FixedDelayDistribution(delay);
+            case UNIFORM -> new UniformDistribution((int) delay, (int) properties.maxDelay().toMillis());
+            case LOGNORMAL -> new LogNormal(delay, properties.sigma());
+            case BIMODAL -> new Bimodal(delay, properties.maxDelay().toMillis(), properties.slowRate());
+        };
+    }
+
+    private static byte[] export(int users) {
+        var out = new ByteArrayOutputStream(users * 40);
+        for (int i = 1; i <= users; i++) {
+            out.writeBytes("{\"id\":%d,\"name\":\"test%d\",\"age\":%d}\n".formatted(i, i, i % 100)
+                    .getBytes(StandardCharsets.UTF_8));
+        }
+        return out.toByteArray();
+    }
+
+    private record Bimodal(long fast, long slow, double slowRate) implements DelayDistribution {
+        @Override
+        public long sampleMillis() {
+            return ThreadLocalRandom.current().nextDouble() < slowRate ? slow : fast;
+        }
+    }
+
+    private static final class FaultInjector implements ResponseDefinitionTransformerV2 {
+        private volatile double faultRate;
+        private volatile LoadProperties.Fault fault;
+
+        @Override
+        public ResponseDefinition transform(ServeEvent serveEvent) {
+            var response = serveEvent.getResponseDefinition();
+            if (faultRate <= 0 || ThreadLocalRandom.current().nextDouble() >= faultRate) {
+                return response;
+            }
+            var failed = ResponseDefinitionBuilder.like(response).withTransformers();
+            if (fault == LoadProperties.Fault.RESET) {
+                return failed.withFault(Fault.CONNECTION_RESET_BY_PEER).build();
+            }
+            return failed.withStatus(500)
+                    .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .withBody("{\"success\":false,\"code\":500,\"msg\":\"Internal Server Error\",\"data\":null}")
+                    .build();
+        }
+
+        @Override
+        public String getName() {
+            return "fault-injector";
+        }
+    }
+}
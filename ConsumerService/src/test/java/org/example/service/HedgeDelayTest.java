@@ -0,0 +1,43 @@
+package org.example.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HedgeDelayTest {
+    @Test
+    void delayShouldBeUnknownUntilEnoughCallsWereRecorded() {
+        var delay = new HedgeDelay(0.95, 0);
+
+        for (int i = 1; i < 64; i++) {
+            delay.record(i);
+        }
+        assertThat(delay.nanos()).isEqualTo(-1);
+        delay.record(64);
+        assertThat(delay.nanos()).isEqualTo(61);
+    }
+
+    @Test
+    void delayShouldFollowTheRecentLatencies() {
+        var delay = new HedgeDelay(0.5, 0);
+
+        for (int i = 0; i < 1024; i++) {
+            delay.record(1_000);
+        }
+        assertThat(delay.nanos()).isEqualTo(1_000);
+        for (int i = 0; i < 640; i++) {
+            delay.record(5_000);
+        }
+        assertThat(delay.nanos()).isEqualTo(5_000);
+    }
+
+    @Test
+    void delayShouldNotGoBelowTheMinimum() {
+        var delay = new HedgeDelay(0.95, 2_000_000);
+
+        for (int i = 0; i < 64; i++) {
+            delay.record(1_000);
+        }
+        assertThat(delay.nanos()).isEqualTo(2_000_000);
+    }
+}
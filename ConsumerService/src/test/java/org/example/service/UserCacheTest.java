@@ -0,0 +1,116 @@
+package org.example.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.config.CacheProperties;
+import org.example.data.User;
+import org.example.response.ResultResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class UserCacheTest {
+    private final UserRetrieveCollapser userRetrieveCollapser = mock(UserRetrieveCollapser.class);
+    private final UserRemoteAsyncService userRemoteAsyncService = mock(UserRemoteAsyncService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void retrieveShouldServeRepeatedLookupsFromCache() throws InterruptedException {
+        when(userRetrieveCollapser.retrieveUser(1L)).thenReturn(found(1L));
+        var cache = cache(true);
+
+        assertThat(cache.retrieveUser(1L).getBody()).isEqualTo(found(1L).getBody());
+        assertThat(cache.retrieveUser(1L).getBody()).isEqualTo(found(1L).getBody());
+
+        verify(userRetrieveCollapser, times(1)).retrieveUser(1L);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "users").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("user.cache.entry.weight").summary().count()).isEqualTo(1);
+        // Caffeine totals the weights in its maintenance task, which runs on the common pool
+        var weight = meterRegistry.get("user.cache.weight").gauge();
+        for (int i = 0; i < 100 && weight.value() == 0; i++) {
+            Thread.sleep(10);
+        }
+        assertThat(weight.value()).isPositive();
+    }
+
+    @Test
+    void retrieveShouldNotCacheFailures() {
+        when(userRetrieveCollapser.retrieveUser(1L))
+                .thenThrow(new IllegalStateException("remote failure"))
+                .thenReturn(ResponseEntity.ok(ResultResponse.fail(404, "User not found, id: 1")))
+                .thenReturn(found(1L));
+        var cache = cache(true);
+
+        assertThatThrownBy(() -> cache.retrieveUser(1L)).hasMessage("remote failure");
+        assertThat(cache.retrieveUser(1L).getBody().getSuccess()).isFalse();
+        assertThat(cache.retrieveUser(1L).getBody().getSuccess()).isTrue();
+        assertThat(cache.retrieveUser(1L).getBody().getSuccess()).isTrue();
+
+        verify(userRetrieveCollapser, times(3)).retrieveUser(1L);
+    }
+
+    @Test
+    void invalidateShouldForceNextLookupUpstream() {
+        when(userRetrieveCollapser.retrieveUser(1L)).thenReturn(found(1L));
+        var cache = cache(true);
+
+        cache.retrieveUser(1L);
+        cache.invalidate(1L);
+        cache.retrieveUser(1L);
+
+        verify(userRetrieveCollapser, times(2)).retrieveUser(1L);
+    }
+
+    @Test
+    void invalidateShouldDropLoadInFlight() throws Exception {
+        var loading = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        when(userRetrieveCollapser.retrieveUser(1L)).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await();
+            return found(1L);
+        });
+        var cache = cache(true);
+
+        var stale = CompletableFuture.supplyAsync(() -> cache.retrieveUser(1L));
+        loading.await();
+        cache.invalidate(1L);
+        release.countDown();
+        stale.get();
+        cache.retrieveUser(1L);
+
+        verify(userRetrieveCollapser, times(2)).retrieveUser(1L);
+    }
+
+    @Test
+    void disabledCacheShouldCallThrough() {
+        when(userRetrieveCollapser.retrieveUser(1L)).thenReturn(found(1L));
+        var cache = cache(false);
+
+        cache.retrieveUser(1L);
+        cache.retrieveUser(1L);
+
+        verify(userRetrieveCollapser, times(2)).retrieveUser(1L);
+    }
+
+    private UserCache cache(boolean enabled) {
+        return new UserCache(userRetrieveCollapser, userRemoteAsyncService, new ObjectMapper(),
+                new MappingJackson2SmileHttpMessageConverter(),
+                new CacheProperties(enabled, DataSize.ofMegabytes(1), Duration.ofMinutes(1), Duration.ofMinutes(5)),
+                meterRegistry);
+    }
+
+    private static ResponseEntity<ResultResponse<User>> found(Long id) {
+        return ResponseEntity.ok(ResultResponse.success(new User(id, "test", 18)));
+    }
+}
@@ -0,0 +1,140 @@
+package org.example.service;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.data.User;
+import org.example.support.ConsumerWireMockTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.wiremock.spring.InjectWireMock;
+
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ConsumerWireMockTest(properties = {"consumer.cache.enabled=true", "consumer.cache.revalidate-after=100ms"})
+class UserCacheWireMockTest {
+    @Autowired
+    private UserCache userCache;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private MockMvc mockMvc;
+    @SuppressWarnings("unused")
+    @InjectWireMock
+    private WireMockServer wireMock;
+
+    @AfterEach
+    void invalidate() {
+        userCache.invalidate(1L);
+        userCache.invalidate(2L);
+    }
+
+    @Test
+    public void staleEntryShouldBeRevalidatedWithItsEtag() throws Exception {
+        wireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/v1/user"))
+                .withQueryParam("id", WireMock.equalTo("1"))
+                .willReturn(WireMock.okForContentType(MediaType.APPLICATION_JSON_VALUE, """
+                                {"success":true,"code":200,"msg":"Success","data":{"id":1,"name":"test","age":18}}
+                                """)
+                        .withHeader(HttpHeaders.ETAG, "\"1-0\"")
+                        .withGzipDisabled(true)));
+        wireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/v1/user"))
+                .withQueryParam("id", WireMock.equalTo("1"))
+                .withHeader(HttpHeaders.IF_NONE_MATCH, WireMock.equalTo("\"1-0\""))
+                .willReturn(WireMock.status(304).withHeader(HttpHeaders.ETAG, "\"1-0\"")));
+
+        assertThat(userCache.retrieveUser(1L).getBody().getData()).isEqualTo(new User(1L, "test", 18));
+        assertThat(userCache.retrieveUser(1L).getHeaders().getETag()).isEqualTo("\"1-0\"");
+        Thread.sleep(200);
+        // answered from the cache while the conditional GET runs in the background
+        assertThat(userCache.retrieveUser(1L).getBody().getData()).isEqualTo(new User(1L, "test", 18));
+        await(() -> revalidations("not-modified") == 1);
+
+        wireMock.verify(2, WireMock.getRequestedFor(WireMock.urlPathEqualTo("/v1/user")));
+        wireMock.verify(1, WireMock.getRequestedFor(WireMock.urlPathEqualTo("/v1/user"))
+                .withHeader(HttpHeaders.IF_NONE_MATCH, WireMock.equalTo("\"1-0\"")));
+    }
+
+    @Test
+    public void changedEntryShouldBeReplacedOnRevalidation() throws Exception {
+        wireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/v1/user"))
+                .withQueryParam("id", WireMock.equalTo("2"))
+                .willReturn(WireMock.okForContentType(MediaType.APPLICATION_JSON_VALUE, """
+                                {"success":true,"code":200,"msg":"Success","data":{"id":2,"name":"test","age":18}}
+                                """)
+                        .withHeader(HttpHeaders.ETAG, "\"2-0\"")
+                        .withGzipDisabled(true)));
+        userCache.retrieveUser(2L);
+        wireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/v1/user"))
+                .withQueryParam("id", WireMock.equalTo("2"))
+                .willReturn(WireMock.okForContentType(MediaType.APPLICATION_JSON_VALUE, """
+                                {"success":true,"code":200,"msg":"Success","data":{"id":2,"name":"updated","age":18}}
+                                """)
+                        .withHeader(HttpHeaders.ETAG, "\"2-1\"")
+                        .withGzipDisabled(true)));
+        Thread.sleep(200);
+        userCache.retrieveUser(2L);
+        await(() -> "updated".equals(userCache.retrieveUser(2L).getBody().getData().getName()));
+
+        assertThat(userCache.retrieveUser(2L).getHeaders().getETag()).isEqualTo("\"2-1\"");
+        assertThat(revalidations("modified")).isEqualTo(1);
+    }
+
+    @Test
+    public void asyncWritesShouldInvalidateTheEntry() throws Exception {
+        stubUser("test");
+        wireMock.stubFor(WireMock.put(WireMock.urlEqualTo("/v1/user"))
+                .willReturn(WireMock.okForContentType(MediaType.APPLICATION_JSON_VALUE, """
+                        {"success":true,"code":200,"msg":"Success","data":{"id":1,"name":"test","age":18}}
+                        """)));
+        wireMock.stubFor(WireMock.delete(WireMock.urlPathEqualTo("/v1/user"))
+                .willReturn(WireMock.okForContentType(MediaType.APPLICATION_JSON_VALUE, """
+                        {"success":true,"code":200,"msg":"Success","data":null}
+                        """)));
+        userCache.retrieveUser(1L);
+
+        stubUser("updated");
+        performAsync(put("/v1/async/user").contentType(MediaType.APPLICATION_JSON));
+        assertThat(userCache.retrieveUser(1L).getBody().getData().getName()).isEqualTo("updated");
+
+        stubUser("recreated");
+        performAsync(delete("/v1/async/user"));
+        assertThat(userCache.retrieveUser(1L).getBody().getData().getName()).isEqualTo("recreated");
+    }
+
+    private void stubUser(String name) {
+        wireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/v1/user"))
+                .withQueryParam("id", WireMock.equalTo("1"))
+                .willReturn(WireMock.okForContentType(MediaType.APPLICATION_JSON_VALUE, """
+                        {"success":true,"code":200,"msg":"Success","data":{"id":1,"name":"%s","age":18}}
+                        """.formatted(name))));
+    }
+
+    private void performAsync(RequestBuilder requestBuilder) throws Exception {
+        var mvcResult = mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult)).andExpect(status().isOk());
+    }
+
+    private double revalidations(String result) {
+        return meterRegistry.get("user.cache.revalidations").tag("result", result).counter().count();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 50 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(20);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
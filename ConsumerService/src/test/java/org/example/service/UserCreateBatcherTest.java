@@ -0,0 +1,223 @@
+package org.example.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.FeignException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.config.BatchProperties;
+import org.example.data.User;
+import org.example.exception.DeadlineExceededException;
+import org.example.response.ResultResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.openfeign.FeignClientProperties;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class UserCreateBatcherTest {
+    private final UserRemoteService userRemoteService = mock(UserRemoteService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong sequence = new AtomicLong();
+    private UserCreateBatcher batcher;
+
+    @AfterEach
+    void tearDown() {
+        batcher.close();
+    }
+
+    @Test
+    void concurrentCreatesShouldBeSentInBatches() throws Exception {
+        when(userRemoteService.createUsers(anyList())).thenAnswer(invocation -> {
+            List<User> users = invocation.getArgument(0);
+            var results = users.stream().map(user -> ResultResponse.success(created(user))).toList();
+            return ResponseEntity.ok(ResultResponse.success(results));
+        });
+        batcher = batcher(new BatchProperties(true, Duration.ofSeconds(1), 8, 1, 64));
+
+        int callers = 32;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            var futures = new ArrayList<Future<ResponseEntity<ResultResponse<User>>>>();
+            for (int i = 0; i < callers; i++) {
+                var name = "test" + i;
+                futures.add(executor.submit(() -> batcher.createUser(User.builder().name(name).age(18).build())));
+            }
+            for (int i = 0; i < callers; i++) {
+                var response = futures.get(i).get();
+                assertThat(response.getStatusCode().value()).isEqualTo(200);
+                assertThat(response.getBody().getData().getName()).isEqualTo("test" + i);
+                assertThat(response.getBody().getData().getId()).isNotNull();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(userRemoteService, times(callers / 8)).createUsers(anyList());
+        verify(userRemoteService, never()).createUser(any());
+        var batchSizes = meterRegistry.get("user.create.batch.size").summary();
+        assertThat(batchSizes.count()).isEqualTo(callers / 8);
+        assertThat(batchSizes.totalAmount()).isEqualTo(callers);
+    }
+
+    @Test
+    void loneCreateShouldBeSentOnItsOwn() {
+        when(userRemoteService.createUser(any())).thenAnswer(invocation ->
+                ResponseEntity.ok(ResultResponse.success(created(invocation.getArgument(0)))));
+        batcher = batcher(new BatchProperties(true, Duration.ofMillis(2), 256, 1, 64));
+
+        var response = batcher.createUser(User.builder().name("test").age(18).build());
+
+        assertThat(response.getBody().getData()).isEqualTo(new User(1L, "test", 18));
+        verify(userRemoteService, never()).createUsers(anyList());
+    }
+
+    @Test
+    void failedBatchShouldFailEveryCaller() throws Exception {
+        when(userRemoteService.createUsers(anyList())).thenThrow(new IllegalStateException("remote failure"));
+        batcher = batcher(new BatchProperties(true, Duration.ofSeconds(1), 2, 1, 64));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            var first = executor.submit(() -> batcher.createUser(User.builder().name("first").build()));
+            var second = executor.submit(() -> batcher.createUser(User.builder().name("second").build()));
+
+            assertThatThrownBy(first::get).hasRootCauseMessage("remote failure");
+            assertThatThrownBy(second::get).hasRootCauseMessage("remote failure");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void failedItemShouldThrowLikeAnUnbatchedCreate() throws Exception {
+        when(userRemoteService.createUsers(anyList())).thenReturn(ResponseEntity.ok(ResultResponse.success(List.of(
+                ResultResponse.success(new User(1L, "first", 18)),
+                ResultResponse.<User>fail(409, "Conflict")))));
+        batcher = batcher(new BatchProperties(true, Duration.ofSeconds(1), 2, 1, 64));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            var first = executor.submit(() -> batcher.createUser(User.builder().name("first").build()));
+            Thread.sleep(100);
+            var second = executor.submit(() -> batcher.createUser(User.builder().name("second").build()));
+
+            assertThat(first.get().getBody().getData().getId()).isEqualTo(1L);
+            assertThatThrownBy(second::get)
+                    .cause()
+                    .isInstanceOf(FeignException.Conflict.class)
+                    .satisfies(e -> assertThat(((FeignException) e).contentUTF8()).contains("\"code\":409"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void malformedItemShouldNotCountAsCreated() throws Exception {
+        when(userRemoteService.createUsers(anyList())).thenReturn(ResponseEntity.ok(ResultResponse.success(List.of(
+                ResultResponse.success(new User(1L, "first", 18)),
+                new ResultResponse<>()))));
+        batcher = batcher(new BatchProperties(true, Duration.ofSeconds(1), 2, 1, 64));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            var first = executor.submit(() -> batcher.createUser(User.builder().name("first").build()));
+            Thread.sleep(100);
+            var second = executor.submit(() -> batcher.createUser(User.builder().name("second").build()));
+
+            assertThat(first.get().getBody().getData().getId()).isEqualTo(1L);
+            assertThatThrownBy(second::get)
+                    .cause()
+                    .isInstanceOf(FeignException.InternalServerError.class);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void fullQueueShouldCallThrough() throws Exception {
+        var release = new CountDownLatch(1);
+        when(userRemoteService.createUser(any())).thenAnswer(invocation -> {
+            User user = invocation.getArgument(0);
+            if ("first".equals(user.getName())) {
+                release.await();
+            }
+            return ResponseEntity.ok(ResultResponse.success(created(user)));
+        });
+        batcher = batcher(new BatchProperties(true, Duration.ofMillis(2), 256, 1, 1));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // the flusher is stuck sending the first create, the second fills the queue
+            var first = executor.submit(() -> batcher.createUser(User.builder().name("first").build()));
+            Thread.sleep(100);
+            var second = executor.submit(() -> batcher.createUser(User.builder().name("second").build()));
+            Thread.sleep(100);
+
+            var third = batcher.createUser(User.builder().name("third").build());
+
+            assertThat(third.getBody().getData().getName()).isEqualTo("third");
+            release.countDown();
+            assertThat(first.get().getBody().getData().getName()).isEqualTo("first");
+            assertThat(second.get().getBody().getData().getName()).isEqualTo("second");
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void callersShouldGiveUpAfterTheReadTimeout() {
+        var release = new CountDownLatch(1);
+        when(userRemoteService.createUser(any())).thenAnswer(invocation -> {
+            release.await();
+            return ResponseEntity.ok(ResultResponse.success(created(invocation.getArgument(0))));
+        });
+        var feignClientProperties = new FeignClientProperties();
+        var config = new FeignClientProperties.FeignClientConfiguration();
+        config.setReadTimeout(200);
+        feignClientProperties.getConfig().put("user-service", config);
+        batcher = new UserCreateBatcher(userRemoteService, new BatchProperties(true, Duration.ofMillis(2), 256, 1, 64),
+                feignClientProperties, new ObjectMapper(), meterRegistry, new MockEnvironment());
+
+        try {
+            assertThatThrownBy(() -> batcher.createUser(User.builder().name("test").build()))
+                    .isInstanceOf(DeadlineExceededException.class)
+                    .hasMessageContaining("batched POST");
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void disabledBatcherShouldCallThrough() {
+        var user = User.builder().name("test").build();
+        when(userRemoteService.createUser(user)).thenReturn(ResponseEntity.ok(ResultResponse.success(created(user))));
+        batcher = batcher(new BatchProperties(false, Duration.ofMillis(2), 256, 1, 64));
+
+        assertThat(batcher.createUser(user).getBody().getData().getName()).isEqualTo("test");
+        verify(userRemoteService).createUser(user);
+    }
+
+    private UserCreateBatcher batcher(BatchProperties properties) {
+        return new UserCreateBatcher(userRemoteService, properties, new FeignClientProperties(), new ObjectMapper(),
+                meterRegistry, new MockEnvironment());
+    }
+
+    private User created(User user) {
+        return new User(sequence.incrementAndGet(), user.getName(), user.getAge());
+    }
+}
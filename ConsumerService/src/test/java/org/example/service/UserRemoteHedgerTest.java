@@ -0,0 +1,306 @@
+package org.example.service;
+
+import feign.Client;
+import feign.MethodMetadata;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.config.HedgeProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserRemoteHedgerTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger calls = new AtomicInteger();
+    private UserRemoteHedger hedger;
+
+    @AfterEach
+    void tearDown() {
+        hedger.shutdown();
+    }
+
+    @Test
+    void slowCallShouldBeHedgedAndTheLoserCancelled() throws Exception {
+        var interrupted = new CountDownLatch(1);
+        var client = warmedUp(new HedgeProperties(true, 0.95, Duration.ofMillis(20), 0.05, 10, 64), (request, options) -> {
+            if (calls.incrementAndGet() == 1) {
+                try {
+                    Thread.sleep(5_000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                    throw new IOException(e);
+                }
+            }
+            return response(request, "hedge");
+        });
+
+        long start = System.nanoTime();
+        var response = client.execute(request("retrieveUser"), new Request.Options());
+
+        assertThat(System.nanoTime() - start).isLessThan(TimeUnit.SECONDS.toNanos(1));
+        assertThat(body(response)).isEqualTo("hedge");
+        assertThat(calls.get()).isEqualTo(2);
+        assertThat(interrupted.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(hedges("retrieveUser", "won")).isEqualTo(1);
+    }
+
+    @Test
+    void responseOfTheLoserShouldBeDiscarded() throws Exception {
+        var started = new CountDownLatch(1);
+        var closed = new CountDownLatch(1);
+        var client = warmedUp(new HedgeProperties(true, 0.95, Duration.ofMillis(20), 0.05, 10, 64), (request, options) -> {
+            if (calls.incrementAndGet() == 1) {
+                // like a socket read, which an interrupt does not stop
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(500);
+                while (System.nanoTime() < deadline) {
+                    LockSupport.parkNanos(deadline - System.nanoTime());
+                }
+                return response(request, new ByteArrayInputStream(new byte[0]) {
+                    @Override
+                    public void close() {
+                        closed.countDown();
+                    }
+                });
+            }
+            if (calls.get() == 2) {
+                sleep(100);
+            }
+            return response(request, "hedge");
+        });
+
+        var response = client.execute(request("extractUsers"), new Request.Options());
+
+        assertThat(body(response)).isEqualTo("hedge");
+        assertThat(closed.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(hedges("extractUsers", "won")).isEqualTo(1);
+    }
+
+    @Test
+    void failedAttemptShouldLeaveTheCallToTheOther() throws Exception {
+        var client = warmedUp(new HedgeProperties(true, 0.95, Duration.ofMillis(20), 0.05, 10, 64), (request, options) -> {
+            if (calls.incrementAndGet() == 1) {
+                sleep(100);
+                throw new IOException("Connection reset");
+            }
+            if (calls.get() == 2) {
+                sleep(200);
+            }
+            return response(request, "hedge");
+        });
+
+        var response = client.execute(request("retrieveUser"), new Request.Options());
+
+        assertThat(body(response)).isEqualTo("hedge");
+        assertThat(hedges("retrieveUser", "won")).isEqualTo(1);
+    }
+
+    @Test
+    void hedgesShouldStopWhenTheBudgetIsSpent() throws Exception {
+        var client = warmedUp(new HedgeProperties(true, 0.95, Duration.ofMillis(20), 0, 1, 64), (request, options) -> {
+            if (calls.incrementAndGet() > 0) {
+                sleep(100);
+            }
+            return response(request, "slow");
+        });
+
+        for (int i = 0; i < 3; i++) {
+            client.execute(request("retrieveUser"), new Request.Options()).close();
+        }
+
+        assertThat(calls.get()).isEqualTo(3 + 1);
+        assertThat(hedges("retrieveUser", "won") + hedges("retrieveUser", "lost")).isEqualTo(1);
+        assertThat(hedges("retrieveUser", "over-budget")).isEqualTo(2);
+    }
+
+    @Test
+    void hedgesShouldOnlySpendTheBudgetWhenSent() throws Exception {
+        var client = warmedUp(new HedgeProperties(true, 0.95, Duration.ofMillis(20), 0, 1, 2), (request, options) -> {
+            if (calls.incrementAndGet() > 0) {
+                sleep(100);
+            }
+            return response(request, "slow");
+        });
+
+        // both attempts 0 hold the two threads, so neither call is hedged
+        var other = CompletableFuture.runAsync(() -> {
+            try {
+                client.execute(request("retrieveUser"), new Request.Options()).close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        client.execute(request("retrieveUser"), new Request.Options()).close();
+        other.join();
+        assertThat(calls.get()).isEqualTo(2);
+        assertThat(hedges("retrieveUser", "saturated")).isEqualTo(2);
+
+        client.execute(request("retrieveUser"), new Request.Options()).close();
+        assertThat(calls.get()).isEqualTo(3 + 1);
+        assertThat(hedges("retrieveUser", "over-budget")).isZero();
+    }
+
+    @Test
+    void cancelledLoserShouldHoldItsSlotUntilItsThreadIsFree() throws Exception {
+        var client = warmedUp(new HedgeProperties(true, 0.95, Duration.ofMillis(20), 0.05, 10, 2), (request, options) -> {
+            if (calls.incrementAndGet() == 1) {
+                // like a socket read, which an interrupt does not stop
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(1_000);
+                while (System.nanoTime() < deadline) {
+                    LockSupport.parkNanos(deadline - System.nanoTime());
+                }
+            } else if (calls.get() == 3) {
+                sleep(200);
+            }
+            return response(request, "ok");
+        });
+
+        client.execute(request("retrieveUser"), new Request.Options()).close();
+        assertThat(hedges("retrieveUser", "won")).isEqualTo(1);
+        // the winner's thread gives its slot back just after handing over the response
+        sleep(50);
+
+        // the loser still runs on one of the two threads, so the next call cannot be hedged
+        client.execute(request("retrieveUser"), new Request.Options()).close();
+        assertThat(calls.get()).isEqualTo(3);
+        assertThat(hedges("retrieveUser", "saturated")).isEqualTo(1);
+    }
+
+    @Test
+    void winnerShouldBeDiscardedWhenTheCallerIsInterrupted() throws Exception {
+        var started = new CountDownLatch(1);
+        var closed = new CountDownLatch(1);
+        var client = warmedUp(new HedgeProperties(true, 0.95, Duration.ofMillis(20), 0.05, 10, 64),
+                (request, options) -> {
+                    if (calls.incrementAndGet() <= 0) {
+                        return response(request, "warm-up");
+                    }
+                    if (calls.get() == 1) {
+                        started.countDown();
+                        // like a socket read, which an interrupt does not stop
+                        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(200);
+                        while (System.nanoTime() < deadline) {
+                            LockSupport.parkNanos(deadline - System.nanoTime());
+                        }
+                        return response(request, new ByteArrayInputStream(new byte[0]) {
+                            @Override
+                            public void close() {
+                                closed.countDown();
+                            }
+                        });
+                    }
+                    sleep(5_000);
+                    return response(request, "hedge");
+                });
+
+        var caller = Thread.currentThread();
+        CompletableFuture.runAsync(() -> {
+            try {
+                started.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            caller.interrupt();
+        });
+        assertThatThrownBy(() -> client.execute(request("retrieveUser"), new Request.Options()))
+                .isInstanceOf(InterruptedIOException.class);
+
+        assertThat(Thread.interrupted()).isTrue();
+        assertThat(closed.await(1, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void onlyIdempotentCallsShouldBeHedged() throws Exception {
+        hedger = new UserRemoteHedger(new HedgeProperties(true, 0.95, Duration.ofMillis(1), 1, 10, 64), meterRegistry,
+                new MockEnvironment());
+        var client = hedger.instrument((request, options) -> {
+            calls.incrementAndGet();
+            sleep(5);
+            return response(request, "created");
+        });
+
+        for (int i = 0; i < 80; i++) {
+            client.execute(request("createUser"), new Request.Options()).close();
+        }
+
+        assertThat(calls.get()).isEqualTo(80);
+        assertThat(meterRegistry.find("user.remote.hedges").counters()).isEmpty();
+    }
+
+    private Client warmedUp(HedgeProperties properties, Client delegate) throws IOException {
+        hedger = new UserRemoteHedger(properties, meterRegistry, new MockEnvironment());
+        var client = hedger.instrument(delegate);
+        // counted from the first call after the warm-up
+        calls.set(-128);
+        for (int i = 0; i < 64; i++) {
+            client.execute(request("retrieveUser"), new Request.Options()).close();
+            client.execute(request("extractUsers"), new Request.Options()).close();
+        }
+        return client;
+    }
+
+    private double hedges(String method, String result) {
+        return meterRegistry.get("user.remote.hedges").tag("method", method).tag("result", result).counter().count();
+    }
+
+    private static void sleep(long millis) throws IOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static String body(Response response) throws IOException {
+        try (response) {
+            return new String(response.body().asInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static Request request(String method) {
+        var template = new RequestTemplate();
+        var metadata = metadata(method);
+        template.methodMetadata(metadata);
+        return Request.create(Request.HttpMethod.valueOf(metadata.template().method()), "http://user-service/v1/user",
+                Map.of(), null, StandardCharsets.UTF_8, template);
+    }
+
+    private static MethodMetadata metadata(String method) {
+        return new SpringMvcContract().parseAndValidateMetadata(UserRemoteService.class).stream()
+                .filter(metadata -> metadata.method().getName().equals(method))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static Response response(Request request, String body) {
+        return response(request, new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static Response response(Request request, InputStream body) {
+        return Response.builder()
+                .request(request)
+                .status(200)
+                .headers(Map.of())
+                .body(body, null)
+                .build();
+    }
+}
@@ -0,0 +1,106 @@
+package org.example.service;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.support.ConsumerWireMockTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.wiremock.spring.InjectWireMock;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ConsumerWireMockTest(properties = {"consumer.hedge.enabled=true", "consumer.hedge.min-delay=100ms"})
+class UserRemoteHedgerWireMockTest {
+    @Autowired
+    private UserRemoteService userRemoteService;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @SuppressWarnings("unused")
+    @InjectWireMock
+    private WireMockServer wireMock;
+
+    @Test
+    public void slowRetrieveShouldBeAnsweredByTheHedge() {
+        wireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/v1/user"))
+                .willReturn(WireMock.okForContentType(MediaType.APPLICATION_JSON_VALUE, user("test"))));
+        for (int i = 0; i < 64; i++) {
+            userRemoteService.retrieveUser(1L);
+        }
+        wireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/v1/user"))
+                .withQueryParam("id", WireMock.equalTo("2"))
+                .inScenario("hedge").whenScenarioStateIs(Scenario.STARTED).willSetStateTo("hedged")
+                .willReturn(WireMock.okForContentType(MediaType.APPLICATION_JSON_VALUE, user("primary"))
+                        .withFixedDelay(3_000)));
+        wireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/v1/user"))
+                .withQueryParam("id", WireMock.equalTo("2"))
+                .inScenario("hedge").whenScenarioStateIs("hedged")
+                .willReturn(WireMock.okForContentType(MediaType.APPLICATION_JSON_VALUE, user("hedge"))));
+
+        long start = System.nanoTime();
+        var response = userRemoteService.retrieveUser(2L);
+
+        assertThat(System.nanoTime() - start).isLessThan(1_500_000_000L);
+        assertThat(response.getBody().getData().getName()).isEqualTo("hedge");
+        assertThat(hedges("retrieveUser", "won")).isEqualTo(1);
+        wireMock.verify(2, WireMock.getRequestedFor(WireMock.urlPathEqualTo("/v1/user"))
+                .withQueryParam("id", WireMock.equalTo("2")));
+    }
+
+    @Test
+    public void slowExportShouldBeAnsweredByTheHedgeAndTheLoserAborted() throws Exception {
+        wireMock.stubFor(WireMock.get(WireMock.urlEqualTo("/v1/users"))
+                .willReturn(export("{\"id\":1}\n")));
+        for (int i = 0; i < 64; i++) {
+            userRemoteService.extractUsers().close();
+        }
+        wireMock.stubFor(WireMock.get(WireMock.urlEqualTo("/v1/users"))
+                .inScenario("export").whenScenarioStateIs(Scenario.STARTED).willSetStateTo("hedged")
+                .willReturn(export("{\"id\":1}\n".repeat(100_000))
+                        .withFixedDelay(2_000)
+                        .withChunkedDribbleDelay(10, 10_000)));
+        wireMock.stubFor(WireMock.get(WireMock.urlEqualTo("/v1/users"))
+                .inScenario("export").whenScenarioStateIs("hedged")
+                .willReturn(export("{\"id\":2}\n")));
+
+        try (var response = userRemoteService.extractUsers()) {
+            assertThat(new String(response.body().asInputStream().readAllBytes(), StandardCharsets.UTF_8))
+                    .isEqualTo("{\"id\":2}\n");
+        }
+
+        assertThat(hedges("extractUsers", "won")).isEqualTo(1);
+        // the loser sends its headers after 2s and its body over 10s more, read to its end it would hold the connection
+        await(() -> meterRegistry.get("httpcomponents.httpclient.pool.total.connections").tag("state", "leased")
+                .gauge().value() == 0);
+    }
+
+    private double hedges(String method, String result) {
+        return meterRegistry.get("user.remote.hedges").tag("method", method).tag("result", result).counter().count();
+    }
+
+    private static String user(String name) {
+        return """
+                {"success":true,"code":200,"msg":"Success","data":{"id":1,"name":"%s","age":18}}
+                """.formatted(name);
+    }
+
+    private static ResponseDefinitionBuilder export(String body) {
+        return WireMock.okForContentType(MediaType.APPLICATION_NDJSON_VALUE, body)
+                .withHeader(HttpHeaders.CONTENT_ENCODING, "identity")
+                .withGzipDisabled(true);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 250 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(20);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.service;
+
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.config.LimitProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserRemoteLimiterTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UserRemoteLimiter limiter = new UserRemoteLimiter(
+            new LimitProperties(true, null, new LimitProperties.Bulkhead(1, 1, 1)), meterRegistry);
+
+    @Test
+    void exportShouldGiveBackItsSlotWhenItsBodyCannotBeOpened() throws Exception {
+        var closed = new AtomicBoolean();
+        var client = limiter.instrument((request, options) -> Response.builder()
+                .request(request)
+                .status(200)
+                .headers(Map.of())
+                .body(new BrokenBody(closed))
+                .build());
+
+        assertThatThrownBy(() -> client.execute(request(), new Request.Options())).isInstanceOf(IOException.class);
+
+        assertThat(closed).isTrue();
+        assertThat(meterRegistry.get("user.remote.inflight").tag("method", "extractUsers").gauge().value()).isZero();
+    }
+
+    private static Request request() {
+        var template = new RequestTemplate();
+        template.methodMetadata(new SpringMvcContract().parseAndValidateMetadata(UserRemoteService.class).stream()
+                .filter(metadata -> metadata.method().getName().equals("extractUsers"))
+                .findFirst()
+                .orElseThrow());
+        return Request.create(Request.HttpMethod.GET, "http://user-service/v1/users", Map.of(), null,
+                StandardCharsets.UTF_8, template);
+    }
+
+    private record BrokenBody(AtomicBoolean closed) implements Response.Body {
+        @Override
+        public Integer length() {
+            return null;
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return false;
+        }
+
+        @Override
+        public InputStream asInputStream() throws IOException {
+            throw new IOException("Connection reset");
+        }
+
+        @Override
+        public Reader asReader(Charset charset) throws IOException {
+            throw new IOException("Connection reset");
+        }
+
+        @Override
+        public void close() {
+            closed.set(true);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package org.example.service;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.http.Fault;
+import feign.RetryableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.data.User;
+import org.example.exception.UserRemoteLimitException;
+import org.example.support.ConsumerWireMockTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.wiremock.spring.InjectWireMock;
+
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ConsumerWireMockTest(properties = {
+        "consumer.limit.enabled=true",
+        "consumer.limit.single.initial-limit=4", "consumer.limit.single.min-limit=1",
+        "consumer.limit.single.max-limit=4",
+        "consumer.limit.export.initial-limit=1", "consumer.limit.export.min-limit=1",
+        "consumer.limit.export.max-limit=1"})
+class UserRemoteLimiterWireMockTest {
+    private static final String USER = """
+            {"success":true,"code":200,"msg":"Success","data":{"id":1,"name":"test","age":18}}
+            """;
+
+    @Autowired
+    private UserRemoteService userRemoteService;
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @SuppressWarnings("unused")
+    @InjectWireMock
+    private WireMockServer wireMock;
+
+    @Test
+    public void callsPastTheLimitShouldFailWithoutWaiting() throws Exception {
+        wireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/v1/user"))
+                .willReturn(WireMock.okForContentType(MediaType.APPLICATION_JSON_VALUE, USER)
+                        .withFixedDelay(500)));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            var futures = new ArrayList<Future<?>>();
+            for (long id = 1; id <= 4; id++) {
+                var userId = id;
+                futures.add(executor.submit(() -> userRemoteService.retrieveUser(userId)));
+            }
+            await(() -> gauge("user.remote.inflight", "retrieveUser") == 4);
+
+            long start = System.nanoTime();
+            assertThatThrownBy(() -> userRemoteService.retrieveUser(5L))
+                    .isInstanceOf(UserRemoteLimitException.class)
+                    .hasMessage("user-service limit of 4 concurrent retrieveUser calls reached");
+            assertThat(System.nanoTime() - start).isLessThan(100_000_000);
+            for (var future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(gauge("user.remote.inflight", "retrieveUser")).isZero();
+        assertThat(meterRegistry.get("user.remote.rejected").tag("method", "retrieveUser").counter().count())
+                .isEqualTo(1);
+        wireMock.verify(4, WireMock.getRequestedFor(WireMock.urlPathEqualTo("/v1/user")));
+    }
+
+    @Test
+    public void openExportShouldOnlyTakeTheExportBulkhead() throws Exception {
+        wireMock.stubFor(WireMock.get(WireMock.urlEqualTo("/v1/users"))
+                .willReturn(WireMock.okForContentType(MediaType.APPLICATION_JSON_VALUE, USER)
+                        .withHeader(HttpHeaders.CONTENT_ENCODING, "identity")
+                        .withGzipDisabled(true)));
+        wireMock.stubFor(WireMock.put(WireMock.urlEqualTo("/v1/user"))
+                .willReturn(WireMock.okForContentType(MediaType.APPLICATION_JSON_VALUE, USER)));
+
+        try (var export = userRemoteService.extractUsers()) {
+            assertThat(export.status()).isEqualTo(200);
+            mockMvc.perform(get("/v1/users/summary"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(jsonPath("$.success").value(false))
+                    .andExpect(jsonPath("$.code").value(503))
+                    .andExpect(jsonPath("$.msg").value("user-service limit of 1 concurrent extractUsers calls reached"));
+            assertThat(userRemoteService.updateUser(new User(1L, "test", 18)).getStatusCode().value()).isEqualTo(200);
+        }
+        mockMvc.perform(get("/v1/users/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.users").value(1));
+        wireMock.verify(2, WireMock.getRequestedFor(WireMock.urlEqualTo("/v1/users")));
+    }
+
+    @Test
+    public void faultsShouldShrinkTheLimitUntilCallsSucceedAgain() throws Exception {
+        wireMock.stubFor(WireMock.delete(WireMock.urlPathEqualTo("/v1/user"))
+                .willReturn(WireMock.aResponse().withFault(Fault.CONNECTION_RESET_BY_PEER)));
+        for (int i = 0; i < 10; i++) {
+            assertThatThrownBy(() -> userRemoteService.deleteUser(1L)).isInstanceOf(RetryableException.class);
+        }
+        assertThat(gauge("user.remote.limit", "deleteUser")).isEqualTo(1);
+        assertThat(gauge("user.remote.inflight", "deleteUser")).isZero();
+
+        wireMock.stubFor(WireMock.delete(WireMock.urlPathEqualTo("/v1/user"))
+                .willReturn(WireMock.okForContentType(MediaType.APPLICATION_JSON_VALUE, """
+                        {"success":true,"code":200,"msg":"Success"}
+                        """)));
+        // a call faster than all before it only lowers the RTT without load, and once the limit is up one call at a
+        // time uses too little of it to raise it further
+        for (int i = 0; i < 50 && gauge("user.remote.limit", "deleteUser") == 1; i++) {
+            assertThat(userRemoteService.deleteUser(1L).getStatusCode().value()).isEqualTo(200);
+        }
+        assertThat(gauge("user.remote.limit", "deleteUser")).isGreaterThan(1);
+    }
+
+    // registered by the first call of the method, which may still be on its way
+    private double gauge(String name, String method) {
+        var gauge = meterRegistry.find(name).tag("method", method).gauge();
+        return gauge == null ? 0 : gauge.value();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 50 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(20);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
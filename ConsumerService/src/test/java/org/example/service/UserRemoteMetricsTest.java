@@ -0,0 +1,121 @@
+package org.example.service;
+
+import feign.Client;
+import feign.MethodMetadata;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserRemoteMetricsTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UserRemoteMetrics metrics = new UserRemoteMetrics(meterRegistry);
+
+    @Test
+    void executeShouldTimeCallsByMethodAndStatus() throws IOException {
+        var client = metrics.instrument((request, options) -> response(request, 200, "{}"));
+
+        client.execute(request("retrieveUser", null), new Request.Options()).close();
+        client.execute(request("retrieveUser", null), new Request.Options()).close();
+
+        var timer = meterRegistry.get("user.remote.requests")
+                .tag("method", "retrieveUser").tag("status", "200").tag("outcome", "SUCCESS").timer();
+        assertThat(timer.count()).isEqualTo(2);
+        assertThat(timer.takeSnapshot().percentileValues()).hasSize(3);
+    }
+
+    @Test
+    void executeShouldTagErrorsWithStatus() throws IOException {
+        Client failing = (request, options) -> {
+            throw new IOException("Connection refused");
+        };
+        var client = metrics.instrument((request, options) -> response(request, 500, "{}"));
+
+        client.execute(request("deleteUser", null), new Request.Options()).close();
+        assertThatThrownBy(() -> metrics.instrument(failing).execute(request("deleteUser", null), new Request.Options()))
+                .hasMessage("Connection refused");
+
+        assertThat(meterRegistry.get("user.remote.requests").tag("method", "deleteUser").tag("status", "500")
+                .tag("outcome", "SERVER_ERROR").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("user.remote.requests").tag("method", "deleteUser").tag("status", "IO_ERROR")
+                .tag("outcome", "UNKNOWN").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void executeShouldRecordBodySizes() throws IOException {
+        var client = metrics.instrument((request, options) -> response(request, 200, "0123456789"));
+        var body = "{\"name\":\"test\"}".getBytes(StandardCharsets.UTF_8);
+
+        client.execute(request("createUser", body), new Request.Options()).close();
+
+        assertThat(meterRegistry.get("user.remote.request.size").tag("method", "createUser").summary().totalAmount())
+                .isEqualTo(body.length);
+        assertThat(meterRegistry.get("user.remote.response.size").tag("method", "createUser").summary().totalAmount())
+                .isEqualTo(10);
+    }
+
+    @Test
+    void executeShouldCountChunkedResponsesAsRead() throws IOException {
+        var client = metrics.instrument((request, options) -> chunked(request, "{\"id\":1}\n{\"id\":2}\n"));
+
+        var response = client.execute(request("extractUsers", null), new Request.Options());
+        var responseSize = meterRegistry.get("user.remote.response.size").tag("method", "extractUsers").summary();
+        assertThat(responseSize.count()).isZero();
+        response.body().asInputStream().transferTo(OutputStream.nullOutputStream());
+        response.close();
+        response.close();
+
+        assertThat(responseSize.count()).isEqualTo(1);
+        assertThat(responseSize.totalAmount()).isEqualTo(18);
+    }
+
+    @Test
+    void recordExtractedShouldCountRecords() {
+        metrics.recordExtracted(18);
+        metrics.recordExtracted(2);
+
+        assertThat(meterRegistry.get("user.remote.extracted.records").counter().count()).isEqualTo(20);
+    }
+
+    private static Request request(String method, byte[] body) {
+        var template = new RequestTemplate();
+        template.methodMetadata(metadata(method));
+        return Request.create(Request.HttpMethod.GET, "http://user-service/v1/user", Map.of(), body,
+                StandardCharsets.UTF_8, template);
+    }
+
+    private static MethodMetadata metadata(String method) {
+        return new SpringMvcContract().parseAndValidateMetadata(UserRemoteService.class).stream()
+                .filter(metadata -> metadata.method().getName().equals(method))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static Response response(Request request, int status, String body) {
+        var bytes = body.getBytes(StandardCharsets.UTF_8);
+        return Response.builder()
+                .request(request)
+                .status(status)
+                .headers(Map.of())
+                .body(new ByteArrayInputStream(bytes), bytes.length)
+                .build();
+    }
+
+    private static Response chunked(Request request, String body) {
+        var bytes = body.getBytes(StandardCharsets.UTF_8);
+        return response(request, 200, "").toBuilder()
+                .body(new ByteArrayInputStream(bytes), null)
+                .build();
+    }
+}
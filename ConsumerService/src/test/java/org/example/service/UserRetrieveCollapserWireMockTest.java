@@ -0,0 +1,121 @@
+package org.example.service;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import feign.FeignException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.data.User;
+import org.example.response.ResultResponse;
+import org.example.support.ConsumerWireMockTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.wiremock.spring.InjectWireMock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ConsumerWireMockTest
+class UserRetrieveCollapserWireMockTest {
+    private static final int CALLERS = 16;
+
+    @Autowired
+    private UserRetrieveCollapser userRetrieveCollapser;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @SuppressWarnings("unused")
+    @InjectWireMock
+    private WireMockServer wireMock;
+
+    @Test
+    public void concurrentRetrievesShouldShareOneRemoteCall() throws Exception {
+        wireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/v1/user"))
+                .withQueryParam("id", WireMock.equalTo("1"))
+                .willReturn(WireMock.okForContentType(MediaType.APPLICATION_JSON_VALUE, """
+                                {"success":true,"code":200,"msg":"Success","data":{"id":1,"name":"test","age":18}}
+                                """)
+                        .withFixedDelay(500)));
+        double issuedBefore = calls("issued");
+        double collapsedBefore = calls("collapsed");
+
+        for (var future : retrieveConcurrently(1L)) {
+            assertThat(future.get().getBody()).isEqualTo(ResultResponse.success(new User(1L, "test", 18)));
+        }
+
+        wireMock.verify(1, WireMock.getRequestedFor(WireMock.urlPathEqualTo("/v1/user")));
+        assertThat(calls("issued") - issuedBefore).isEqualTo(1);
+        assertThat(calls("collapsed") - collapsedBefore).isEqualTo(CALLERS - 1);
+    }
+
+    @Test
+    public void concurrentRetrievesShouldShareOneError() throws Exception {
+        wireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/v1/user"))
+                .withQueryParam("id", WireMock.equalTo("2"))
+                .willReturn(WireMock.serverError().withFixedDelay(500)));
+
+        var futures = retrieveConcurrently(2L);
+        var first = catchCause(futures.get(0));
+        for (var future : futures) {
+            assertThat(catchCause(future)).isInstanceOf(FeignException.InternalServerError.class).isSameAs(first);
+        }
+
+        wireMock.verify(1, WireMock.getRequestedFor(WireMock.urlPathEqualTo("/v1/user")));
+    }
+
+    @Test
+    public void sequentialRetrievesShouldEachCallRemote() {
+        wireMock.stubFor(WireMock.get(WireMock.urlPathEqualTo("/v1/user"))
+                .withQueryParam("id", WireMock.equalTo("3"))
+                .willReturn(WireMock.serverError()));
+
+        assertThatThrownBy(() -> userRetrieveCollapser.retrieveUser(3L)).isInstanceOf(FeignException.class);
+        assertThatThrownBy(() -> userRetrieveCollapser.retrieveUser(3L)).isInstanceOf(FeignException.class);
+
+        wireMock.verify(2, WireMock.getRequestedFor(WireMock.urlPathEqualTo("/v1/user")));
+    }
+
+    private List<Future<ResponseEntity<ResultResponse<User>>>> retrieveConcurrently(Long id) throws Exception {
+        var barrier = new CyclicBarrier(CALLERS);
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            var futures = new ArrayList<Future<ResponseEntity<ResultResponse<User>>>>();
+            for (int i = 0; i < CALLERS; i++) {
+                futures.add(executor.submit(() -> {
+                    barrier.await();
+                    return userRetrieveCollapser.retrieveUser(id);
+                }));
+            }
+            for (var future : futures) {
+                try {
+                    future.get();
+                } catch (Exception ignored) {
+                    // asserted by the caller
+                }
+            }
+            return futures;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Throwable catchCause(Future<?> future) {
+        try {
+            future.get();
+        } catch (Exception e) {
+            return e.getCause();
+        }
+        throw new AssertionError("expected the retrieve to fail");
+    }
+
+    private double calls(String result) {
+        return meterRegistry.get("user.retrieve.calls").tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,69 @@
+package org.example.service;
+
+import org.example.config.LimitProperties;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VegasLimitTest {
+    private static final long RTT = 10_000_000;
+
+    @Test
+    void callsPastTheLimitShouldBeRejected() {
+        var limit = new VegasLimit(new LimitProperties.Bulkhead(2, 1, 10));
+
+        assertThat(limit.tryAcquire()).isEqualTo(0);
+        assertThat(limit.tryAcquire()).isEqualTo(1);
+        assertThat(limit.tryAcquire()).isEqualTo(-1);
+        limit.release();
+        assertThat(limit.tryAcquire()).isEqualTo(1);
+        assertThat(limit.inflight()).isEqualTo(2);
+    }
+
+    @Test
+    void limitShouldGrowWhileTheRttStaysLow() {
+        var limit = new VegasLimit(new LimitProperties.Bulkhead(10, 1, 50));
+
+        limit.sample(RTT, 10, false);
+        limit.sample(RTT, 10, false);
+        assertThat(limit.limit()).isEqualTo(16);
+        for (int i = 0; i < 20; i++) {
+            limit.sample(RTT, limit.limit(), false);
+        }
+        assertThat(limit.limit()).isEqualTo(50);
+    }
+
+    @Test
+    void limitShouldNotGrowWhileMostOfItIsUnused() {
+        var limit = new VegasLimit(new LimitProperties.Bulkhead(10, 1, 50));
+
+        for (int i = 0; i < 20; i++) {
+            limit.sample(RTT, 4, false);
+        }
+        assertThat(limit.limit()).isEqualTo(10);
+    }
+
+    @Test
+    void limitShouldShrinkWhenTheRttRises() {
+        var limit = new VegasLimit(new LimitProperties.Bulkhead(40, 1, 50));
+
+        limit.sample(RTT, 40, false);
+        for (int i = 0; i < 100; i++) {
+            limit.sample(4 * RTT, limit.limit(), false);
+        }
+        // three quarters of every RTT is spent queueing, it settles where no more than 6 calls queue
+        assertThat(limit.limit()).isEqualTo(7);
+    }
+
+    @Test
+    void failedCallsShouldBackOffToTheMinimum() {
+        var limit = new VegasLimit(new LimitProperties.Bulkhead(20, 4, 50));
+
+        limit.sample(RTT, 1, true);
+        assertThat(limit.limit()).isEqualTo(18);
+        for (int i = 0; i < 30; i++) {
+            limit.sample(RTT, 1, true);
+        }
+        assertThat(limit.limit()).isEqualTo(4);
+    }
+}
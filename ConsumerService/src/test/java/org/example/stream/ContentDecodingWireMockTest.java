@@ -0,0 +1,94 @@
+package org.example.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.luben.zstd.Zstd;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import org.example.data.User;
+import org.example.response.ResultResponse;
+import org.example.support.ConsumerWireMockTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.wiremock.spring.InjectWireMock;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+abstract class ContentDecodingWireMockTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @SuppressWarnings("unused")
+    @InjectWireMock
+    private WireMockServer wireMock;
+
+    @Test
+    public void extractUsersShouldDecodeGzipExport() throws Exception {
+        extractUsersShouldDecode("gzip", ContentDecodingWireMockTest::gzip);
+    }
+
+    @Test
+    public void extractUsersShouldDecodeZstdExport() throws Exception {
+        extractUsersShouldDecode("zstd", Zstd::compress);
+    }
+
+    private void extractUsersShouldDecode(String encoding, Encoder encoder) throws Exception {
+        var users = new ArrayList<User>();
+        var ndjson = new StringBuilder();
+        for (int i = 1; i <= 18; i++) {
+            User user = User.builder().id((long) i).name("test" + i).age(i).build();
+            users.add(user);
+            ndjson.append(objectMapper.writeValueAsString(user)).append('\n');
+        }
+        wireMock.stubFor(WireMock.get(WireMock.urlEqualTo("/v1/users"))
+                .withHeader(HttpHeaders.ACCEPT_ENCODING, WireMock.containing(encoding))
+                .willReturn(WireMock.ok()
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withHeader(HttpHeaders.CONTENT_ENCODING, encoding)
+                        .withBody(encoder.encode(ndjson.toString().getBytes(StandardCharsets.UTF_8)))
+                        .withGzipDisabled(true)));
+
+        var mvcResult = mockMvc.perform(get("/v1/users"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertThat(mvcResult.getResponse().getContentAsString())
+                .isEqualTo(objectMapper.writeValueAsString(ResultResponse.success(users)));
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        var compressed = new ByteArrayOutputStream();
+        try (var gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(bytes);
+        }
+        return compressed.toByteArray();
+    }
+
+    private interface Encoder {
+        byte[] encode(byte[] bytes) throws IOException;
+    }
+}
+
+@ConsumerWireMockTest(properties = "spring.cloud.openfeign.client.config.user-service.transport.type=default")
+class DefaultTransportContentDecodingWireMockTest extends ContentDecodingWireMockTest {
+}
+
+@ConsumerWireMockTest(properties = "spring.cloud.openfeign.client.config.user-service.transport.type=apache-hc5")
+class ApacheTransportContentDecodingWireMockTest extends ContentDecodingWireMockTest {
+}
+
+@ConsumerWireMockTest(properties = "spring.cloud.openfeign.client.config.user-service.transport.type=jdk")
+class JdkTransportContentDecodingWireMockTest extends ContentDecodingWireMockTest {
+}
@@ -0,0 +1,101 @@
+package org.example.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import org.example.config.DecodeProperties;
+import org.example.data.User;
+import org.example.data.UserView;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.NoSuchElementException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserNdjsonDecoderTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final UserNdjsonDecoder decoder =
+            new UserNdjsonDecoder(objectMapper, new DecodeProperties(true, 4, DataSize.ofBytes(48), 2));
+
+    @AfterEach
+    void tearDown() {
+        decoder.close();
+    }
+
+    @Test
+    void decodeParallelShouldKeepOrderAcrossChunkBoundaries() throws Exception {
+        var users = new ArrayList<User>();
+        var ndjson = new StringBuilder();
+        for (int i = 1; i <= 1000; i++) {
+            var user = User.builder().id((long) i).name("test".repeat(i % 30)).age(i).build();
+            users.add(user);
+            ndjson.append(objectMapper.writeValueAsString(user)).append('\n');
+        }
+
+        assertThat(decoder.decodeParallel(stream(ndjson.toString()))).isEqualTo(users);
+        assertThat(decoder.decodeSequential(stream(ndjson.toString()))).isEqualTo(users);
+    }
+
+    @Test
+    void decodeParallelShouldAcceptMissingTrailingNewline() throws Exception {
+        var ndjson = "{\"id\":1,\"name\":\"test1\",\"age\":1}\n\n{\"id\":2,\"name\":\"test2\",\"age\":2}";
+
+        assertThat(decoder.decodeParallel(stream(ndjson)))
+                .containsExactly(new User(1L, "test1", 1), new User(2L, "test2", 2));
+        assertThat(decoder.decodeParallel(stream(""))).isEmpty();
+    }
+
+    @Test
+    void decodeParallelShouldPropagateParseErrors() {
+        var ndjson = "{\"id\":1,\"name\":\"test1\",\"age\":1}\n{\"id\":\"x\"}\n";
+
+        assertThatThrownBy(() -> decoder.decodeParallel(stream(ndjson)))
+                .isInstanceOf(MismatchedInputException.class);
+    }
+
+    @Test
+    void scanShouldReadFieldsInPlaceAcrossChunkBoundaries() throws Exception {
+        var users = new ArrayList<User>();
+        var ndjson = new StringBuilder();
+        for (int i = 1; i <= 1000; i++) {
+            var user = User.builder().id((long) i).name("test".repeat(i % 30)).age(i).build();
+            users.add(user);
+            ndjson.append(objectMapper.writeValueAsString(user)).append('\n');
+        }
+        var scanned = new ArrayList<User>();
+
+        assertThat(decoder.scan(stream(ndjson.toString()), user -> scanned.add(user.toUser()))).isEqualTo(1000);
+        assertThat(scanned).isEqualTo(users);
+    }
+
+    @Test
+    void scanShouldSkipUnknownFieldsAndDecodeEscapes() throws Exception {
+        var ndjson = """
+                { "tags" : ["a", {"id": 9}], "name" : "t\\u00e9st \\"q\\" ü", "id" : -7, "age" : null }
+
+                {"extra":{"age":[1,2]},"age":42,"name":null}""";
+        var scanned = new ArrayList<User>();
+
+        assertThat(decoder.scan(stream(ndjson), user -> scanned.add(user.toUser()))).isEqualTo(2);
+        assertThat(scanned).containsExactly(new User(-7L, "t\u00e9st \"q\" ü", null), new User(null, null, 42));
+    }
+
+    @Test
+    void viewShouldRejectMalformedOrMissingValues() {
+        var view = new UserView();
+        var bytes = "{\"id\":1.5,\"name\":\"x\"}".getBytes(StandardCharsets.UTF_8);
+
+        assertThatThrownBy(() -> view.wrap(bytes, 0, bytes.length).id()).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> view.wrap(bytes, 0, bytes.length).age()).isInstanceOf(NoSuchElementException.class);
+        assertThatThrownBy(() -> view.wrap(bytes, 0, 8).hasId()).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
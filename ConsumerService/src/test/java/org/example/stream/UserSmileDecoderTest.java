@@ -0,0 +1,80 @@
+package org.example.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.example.config.SmileProperties;
+import org.example.data.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserSmileDecoderTest {
+    private final UserSmileDecoder decoder = new UserSmileDecoder(new MappingJackson2SmileHttpMessageConverter(),
+            new SmileProperties(true, DataSize.ofKilobytes(1)));
+
+    @Test
+    void decodeShouldReadEveryFrame() throws Exception {
+        var users = List.of(new User(1L, "test1", 18), new User(2L, "test2", 19));
+
+        assertThat(decoder.decode(new ByteArrayInputStream(frames(users)))).isEqualTo(users);
+        assertThat(decoder.decode(new ByteArrayInputStream(new byte[0]))).isEmpty();
+    }
+
+    @Test
+    void decodeShouldRejectLengthsBeyondAnInt() {
+        // 0xFFFFFFFF, which a 32-bit accumulator turns into -1
+        var frame = new byte[]{(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F};
+
+        assertThatThrownBy(() -> decoder.decode(new ByteArrayInputStream(frame)))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("exceeds");
+    }
+
+    @Test
+    void decodeShouldRejectFramesAboveTheMaximum() {
+        // 2048, then no body
+        var frame = new byte[]{(byte) 0x80, 0x10};
+
+        assertThatThrownBy(() -> decoder.decode(new ByteArrayInputStream(frame)))
+                .isInstanceOf(IOException.class)
+                .hasMessage("User frame of 2048 bytes exceeds 1024");
+    }
+
+    @Test
+    void decodeShouldFailOnTruncatedLength() throws Exception {
+        var frames = frames(List.of(new User(1L, "test", 18)));
+        var truncated = new byte[frames.length + 1];
+        System.arraycopy(frames, 0, truncated, 0, frames.length);
+        truncated[frames.length] = (byte) 0x80;
+
+        assertThatThrownBy(() -> decoder.decode(new ByteArrayInputStream(truncated)))
+                .isInstanceOf(EOFException.class)
+                .hasMessage("Truncated frame length");
+    }
+
+    private static byte[] frames(List<User> users) throws IOException {
+        var mapper = new ObjectMapper(new SmileFactory().disable(SmileGenerator.Feature.WRITE_HEADER));
+        var frames = new ByteArrayOutputStream();
+        for (var user : users) {
+            var frame = mapper.writeValueAsBytes(user);
+            int length = frame.length;
+            while ((length & ~0x7F) != 0) {
+                frames.write((length & 0x7F) | 0x80);
+                length >>>= 7;
+            }
+            frames.write(length);
+            frames.write(frame);
+        }
+        return frames.toByteArray();
+    }
+}
@@ -0,0 +1,95 @@
+package org.example.support;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.TestInstancePostProcessor;
+import org.springframework.boot.test.util.TestPropertyValues;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.ContextConfigurationAttributes;
+import org.springframework.test.context.ContextCustomizer;
+import org.springframework.test.context.MergedContextConfiguration;
+import org.springframework.util.ReflectionUtils;
+import org.wiremock.spring.InjectWireMock;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+
+public final class SharedWireMock {
+    private static WireMockServer server;
+    private static Set<UUID> fileStubs;
+
+    private SharedWireMock() {
+    }
+
+    public static synchronized WireMockServer server() {
+        if (server == null) {
+            var started = new WireMockServer(options().dynamicPort());
+            started.start();
+            fileStubs = started.getStubMappings().stream().map(StubMapping::getId).collect(Collectors.toSet());
+            Runtime.getRuntime().addShutdownHook(new Thread(started::stop));
+            server = started;
+        }
+        return server;
+    }
+
+    static synchronized void reset() {
+        var current = server();
+        for (var stub : current.getStubMappings()) {
+            if (!fileStubs.contains(stub.getId())) {
+                current.removeStub(stub);
+            }
+        }
+        current.resetRequests();
+        current.resetScenarios();
+    }
+
+    static final class ContextCustomizerFactory implements org.springframework.test.context.ContextCustomizerFactory {
+        @Override
+        public ContextCustomizer createContextCustomizer(Class<?> testClass,
+                                                         List<ContextConfigurationAttributes> configAttributes) {
+            return new PropertiesCustomizer();
+        }
+    }
+
+    private static final class PropertiesCustomizer implements ContextCustomizer {
+        @Override
+        public void customizeContext(ConfigurableApplicationContext context, MergedContextConfiguration config) {
+            var wireMock = server();
+            TestPropertyValues.of("wiremock.server.baseUrl=" + wireMock.baseUrl(),
+                    "wiremock.server.port=" + wireMock.port()).applyTo(context);
+        }
+
+        // the server is the same for every context, so it must not split the context cache
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof PropertiesCustomizer;
+        }
+
+        @Override
+        public int hashCode() {
+            return PropertiesCustomizer.class.hashCode();
+        }
+    }
+
+    static final class Extension implements TestInstancePostProcessor, BeforeEachCallback {
+        @Override
+        public void postProcessTestInstance(Object testInstance, ExtensionContext context) {
+            ReflectionUtils.doWithFields(testInstance.getClass(), field -> {
+                ReflectionUtils.makeAccessible(field);
+                field.set(testInstance, server());
+            }, field -> field.isAnnotationPresent(InjectWireMock.class)
+                    && field.getType().isAssignableFrom(WireMockServer.class));
+        }
+
+        @Override
+        public void beforeEach(ExtensionContext context) {
+            reset();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package org.example.data;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSummary {
+    private Long users;
+    private Long usersWithAge;
+    private Integer minAge;
+    private Integer maxAge;
+    private Double averageAge;
+}
@@ -0,0 +1,266 @@
+package org.example.data;
+
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+
+public final class UserView {
+    private static final int ABSENT = -1;
+
+    private byte[] buffer;
+    private int offset;
+    private int end;
+    private boolean indexed;
+    private int idAt;
+    private int nameAt;
+    private int ageAt;
+
+    public UserView wrap(byte[] buffer, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > buffer.length) {
+            throw new IndexOutOfBoundsException("Region [%d, %d) outside buffer of %d bytes"
+                    .formatted(offset, offset + length, buffer.length));
+        }
+        this.buffer = buffer;
+        this.offset = offset;
+        this.end = offset + length;
+        this.indexed = false;
+        return this;
+    }
+
+    public boolean hasId() {
+        index();
+        return present(idAt);
+    }
+
+    public long id() {
+        index();
+        return parseLong(require(idAt, "id"));
+    }
+
+    public boolean hasName() {
+        index();
+        return present(nameAt);
+    }
+
+    public String name() {
+        index();
+        return present(nameAt) ? parseString(nameAt) : null;
+    }
+
+    public boolean hasAge() {
+        index();
+        return present(ageAt);
+    }
+
+    public int age() {
+        index();
+        int i = require(ageAt, "age");
+        long age = parseLong(i);
+        if (age < Integer.MIN_VALUE || age > Integer.MAX_VALUE) {
+            throw malformed(i, "int out of range");
+        }
+        return (int) age;
+    }
+
+    public User toUser() {
+        return new User(hasId() ? id() : null, name(), hasAge() ? age() : null);
+    }
+
+    @Override
+    public String toString() {
+        return buffer == null ? "UserView()" : new String(buffer, offset, end - offset, StandardCharsets.UTF_8);
+    }
+
+    private void index() {
+        if (indexed) {
+            return;
+        }
+        if (buffer == null) {
+            throw new IllegalStateException("No user wrapped");
+        }
+        idAt = nameAt = ageAt = ABSENT;
+        int i = skipWhitespace(offset);
+        expect(i, '{');
+        i = skipWhitespace(i + 1);
+        if (at(i) != '}') {
+            while (true) {
+                expect(i, '"');
+                int keyStart = i + 1;
+                int keyEnd = endOfString(i);
+                i = skipWhitespace(keyEnd + 1);
+                expect(i, ':');
+                int valueAt = skipWhitespace(i + 1);
+                i = skipWhitespace(skipValue(valueAt));
+                if (keyIs(keyStart, keyEnd, "id")) {
+                    idAt = valueAt;
+                } else if (keyIs(keyStart, keyEnd, "name")) {
+                    nameAt = valueAt;
+                } else if (keyIs(keyStart, keyEnd, "age")) {
+                    ageAt = valueAt;
+                }
+                if (at(i) == '}') {
+                    break;
+                }
+                expect(i, ',');
+                i = skipWhitespace(i + 1);
+            }
+        }
+        indexed = true;
+    }
+
+    private boolean present(int valueAt) {
+        return valueAt != ABSENT && buffer[valueAt] != 'n';
+    }
+
+    private int require(int valueAt, String field) {
+        if (!present(valueAt)) {
+            throw new NoSuchElementException("User has no " + field);
+        }
+        return valueAt;
+    }
+
+    private long parseLong(int i) {
+        boolean negative = at(i) == '-';
+        if (negative) {
+            i++;
+        }
+        int start = i;
+        // accumulated negatively, like Long.parseLong, so Long.MIN_VALUE fits
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long value = 0;
+        while (i < end && buffer[i] >= '0' && buffer[i] <= '9') {
+            int digit = buffer[i] - '0';
+            if (value < limit / 10 || value * 10 < limit + digit) {
+                throw malformed(start, "long out of range");
+            }
+            value = value * 10 - digit;
+            i++;
+        }
+        if (i == start || (i < end && (buffer[i] == '.' || buffer[i] == 'e' || buffer[i] == 'E'))) {
+            throw malformed(start, "integer expected");
+        }
+        return negative ? value : -value;
+    }
+
+    private String parseString(int i) {
+        int start = i + 1;
+        int close = endOfString(i);
+        int escape = indexOf('\\', start, close);
+        if (escape < 0) {
+            return new String(buffer, start, close - start, StandardCharsets.UTF_8);
+        }
+        var decoded = new StringBuilder(close - start);
+        while (escape >= 0) {
+            decoded.append(new String(buffer, start, escape - start, StandardCharsets.UTF_8));
+            byte escaped = buffer[escape + 1];
+            start = escape + 2;
+            switch (escaped) {
+                case 'b' -> decoded.append('\b');
+                case 'f' -> decoded.append('\f');
+                case 'n' -> decoded.append('\n');
+                case 'r' -> decoded.append('\r');
+                case 't' -> decoded.append('\t');
+                case 'u' -> {
+                    if (start + 4 > close) {
+                        throw malformed(escape, "truncated unicode escape");
+                    }
+                    decoded.append((char) Integer.parseInt(
+                            new String(buffer, start, 4, StandardCharsets.US_ASCII), 16));
+                    start += 4;
+                }
+                default -> decoded.append((char) escaped);
+            }
+            escape = indexOf('\\', start, close);
+        }
+        return decoded.append(new String(buffer, start, close - start, StandardCharsets.UTF_8)).toString();
+    }
+
+    private int skipValue(int i) {
+        byte b = at(i);
+        if (b == '"') {
+            return endOfString(i) + 1;
+        }
+        if (b == '{' || b == '[') {
+            int depth = 0;
+            do {
+                b = at(i);
+                if (b == '"') {
+                    i = endOfString(i);
+                } else if (b == '{' || b == '[') {
+                    depth++;
+                } else if (b == '}' || b == ']') {
+                    depth--;
+                }
+                i++;
+            } while (depth > 0);
+            return i;
+        }
+        int start = i;
+        while (i < end && b != ',' && b != '}' && b != ']' && !isWhitespace(b)) {
+            b = ++i < end ? buffer[i] : 0;
+        }
+        if (i == start) {
+            throw malformed(start, "value expected");
+        }
+        return i;
+    }
+
+    private int endOfString(int quote) {
+        for (int i = quote + 1; i < end; i++) {
+            if (buffer[i] == '\\') {
+                i++;
+            } else if (buffer[i] == '"') {
+                return i;
+            }
+        }
+        throw malformed(quote, "unterminated string");
+    }
+
+    private boolean keyIs(int start, int end, String key) {
+        if (end - start != key.length()) {
+            return false;
+        }
+        for (int i = 0; i < key.length(); i++) {
+            if (buffer[start + i] != key.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int indexOf(char c, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int skipWhitespace(int i) {
+        while (i < end && isWhitespace(buffer[i])) {
+            i++;
+        }
+        return i;
+    }
+
+    private byte at(int i) {
+        if (i >= end) {
+            throw malformed(i, "unexpected end");
+        }
+        return buffer[i];
+    }
+
+    private void expect(int i, char c) {
+        if (at(i) != c) {
+            throw malformed(i, "'" + c + "' expected");
+        }
+    }
+
+    private IllegalArgumentException malformed(int i, String reason) {
+        return new IllegalArgumentException("Malformed user at byte %d: %s".formatted(i - offset, reason));
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\n';
+    }
+}
@@ -0,0 +1,41 @@
+package org.example.data;
+
+public final class UserViewCursor {
+    private final UserView view = new UserView();
+    private byte[] buffer;
+    private int position;
+    private int end;
+
+    public UserViewCursor reset(byte[] buffer, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > buffer.length) {
+            throw new IndexOutOfBoundsException("Region [%d, %d) outside buffer of %d bytes"
+                    .formatted(offset, offset + length, buffer.length));
+        }
+        this.buffer = buffer;
+        this.position = offset;
+        this.end = offset + length;
+        return this;
+    }
+
+    public boolean next() {
+        while (position < end) {
+            int lineStart = position;
+            int lineEnd = lineStart;
+            while (lineEnd < end && buffer[lineEnd] != '\n') {
+                lineEnd++;
+            }
+            position = lineEnd + 1;
+            for (int i = lineStart; i < lineEnd; i++) {
+                if (buffer[i] != ' ' && buffer[i] != '\t' && buffer[i] != '\r') {
+                    view.wrap(buffer, lineStart, lineEnd - lineStart);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public UserView view() {
+        return view;
+    }
+}
@@ -11,6 +11,10 @@ import java.io.Serializable;
 @NoArgsConstructor
 @AllArgsConstructor
 public class ResultResponse<T> implements Serializable {
+    // outside the Integer cache, so boxing 200 for every envelope would allocate
+    private static final Integer OK = 200;
+    private static final ResultResponse<?> OK_RESPONSE = new Constant<>(true, OK, "Success", null);
+
     private Boolean success;
     private Integer code;
     private String msg;
@@ -21,19 +25,24 @@ public class ResultResponse<T> implements Serializable {
     }
 
     public static <T> ResultResponse<T> success(String msg, T data) {
-        return success(200, msg, data);
+        return success(OK, msg, data);
     }
 
     public static <T> ResultResponse<T> success(String msg) {
-        return success(200, msg, null);
+        return success(OK, msg, null);
     }
 
     public static <T> ResultResponse<T> success(T data) {
-        return success(200, "Success", data);
+        return success(OK, "Success", data);
     }
 
     public static <T> ResultResponse<T> success() {
-        return success(200, "Success", null);
+        return success(OK, "Success", null);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> ResultResponse<T> ok() {
+        return (ResultResponse<T>) OK_RESPONSE;
     }
 
     public static <T> ResultResponse<T> fail(Integer code, String msg, T data) {
@@ -51,4 +60,34 @@ public class ResultResponse<T> implements Serializable {
     public static <T> ResultResponse<T> fail(String msg) {
         return fail(500, msg, null);
     }
-}
\ No newline at end of file
+
+    private static final class Constant<T> extends ResultResponse<T> {
+        private Constant(Boolean success, Integer code, String msg, T data) {
+            super(success, code, msg, data);
+        }
+
+        @Override
+        public void setSuccess(Boolean success) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setCode(Integer code) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setMsg(String msg) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setData(T data) {
+            throw new UnsupportedOperationException();
+        }
+
+        private Object readResolve() {
+            return OK_RESPONSE;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserViewCursorTest {
+    @Test
+    void cursorShouldVisitEveryNonBlankLine() {
+        var bytes = "\n{\"id\":1}\r\n \t\n{\"id\":2,\"name\":\"test\"}\n\n{\"id\":3}".getBytes(StandardCharsets.UTF_8);
+        var cursor = new UserViewCursor().reset(bytes, 0, bytes.length);
+
+        var users = new ArrayList<User>();
+        while (cursor.next()) {
+            users.add(cursor.view().toUser());
+        }
+
+        assertThat(users).containsExactly(new User(1L, null, null), new User(2L, "test", null),
+                new User(3L, null, null));
+    }
+
+    @Test
+    void cursorShouldStopAtTheEndOfItsRegion() {
+        var bytes = "{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8);
+        var cursor = new UserViewCursor().reset(bytes, 0, 9);
+
+        assertThat(cursor.next()).isTrue();
+        assertThat(cursor.view().id()).isEqualTo(1L);
+        assertThat(cursor.next()).isFalse();
+    }
+}
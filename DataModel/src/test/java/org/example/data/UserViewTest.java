@@ -0,0 +1,110 @@
+package org.example.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserViewTest {
+    private final UserView view = new UserView();
+
+    @Test
+    void fieldsShouldBeReadInAnyOrder() {
+        wrap(" { \"age\" : 18, \"name\" : \"test\", \"id\" : 1 } ");
+
+        assertThat(view.id()).isEqualTo(1L);
+        assertThat(view.name()).isEqualTo("test");
+        assertThat(view.age()).isEqualTo(18);
+        assertThat(view.toUser()).isEqualTo(new User(1L, "test", 18));
+    }
+
+    @Test
+    void escapesShouldBeDecoded() {
+        wrap("{\"id\":1,\"name\":\"a\\\"b\\\\c\\/d\\n\\u00e9\\t\"}");
+
+        assertThat(view.name()).isEqualTo("a\"b\\c/d\né\t");
+    }
+
+    @Test
+    void nonAsciiNamesShouldBeDecodedAsUtf8() {
+        wrap("{\"id\":1,\"name\":\"Zoë 山田\"}");
+
+        assertThat(view.name()).isEqualTo("Zoë 山田");
+    }
+
+    @Test
+    void nullsShouldReadAsAbsent() {
+        wrap("{\"id\":null,\"name\":null,\"age\":null}");
+
+        assertThat(view.hasId()).isFalse();
+        assertThat(view.name()).isNull();
+        assertThat(view.hasAge()).isFalse();
+        assertThat(view.toUser()).isEqualTo(new User(null, null, null));
+        assertThatThrownBy(view::id).isInstanceOf(NoSuchElementException.class);
+        assertThatThrownBy(view::age).isInstanceOf(NoSuchElementException.class);
+    }
+
+    @Test
+    void unknownAndNestedFieldsShouldBeSkipped() {
+        wrap("{\"tags\":[\"a\",{\"id\":2}],\"id\":1,\"meta\":{\"name\":\"}\",\"deep\":[[]]},\"flag\":true,"
+                + "\"score\":-1.5e3,\"name\":\"test\",\"age\":18}");
+
+        assertThat(view.toUser()).isEqualTo(new User(1L, "test", 18));
+    }
+
+    @Test
+    void longBoundsShouldBeParsed() {
+        wrap("{\"id\":-9223372036854775808}");
+        assertThat(view.id()).isEqualTo(Long.MIN_VALUE);
+
+        wrap("{\"id\":9223372036854775807}");
+        assertThat(view.id()).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void outOfRangeNumbersShouldBeRejected() {
+        wrap("{\"id\":9223372036854775808,\"age\":2147483648}");
+
+        assertThatThrownBy(view::id).isInstanceOf(IllegalArgumentException.class).hasMessageContaining("out of range");
+        assertThatThrownBy(view::age).isInstanceOf(IllegalArgumentException.class).hasMessageContaining("out of range");
+
+        wrap("{\"id\":-9223372036854775809}");
+        assertThatThrownBy(view::id).isInstanceOf(IllegalArgumentException.class).hasMessageContaining("out of range");
+    }
+
+    @Test
+    void nonIntegersShouldBeRejected() {
+        for (var id : new String[]{"1.5", "1e3", "\"1\"", "-", "true"}) {
+            wrap("{\"id\":" + id + "}");
+
+            assertThatThrownBy(view::id).as(id).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    void malformedLinesShouldBeRejected() {
+        for (var line : new String[]{"", "[]", "{\"id\":1", "{\"id\" 1}", "{\"id\":1,}", "{\"id\":1 \"age\":2}",
+                "{\"name\":\"test}", "{id:1}", "{\"id\":}"}) {
+            wrap(line);
+
+            assertThatThrownBy(view::toUser).as(line).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    void viewShouldOnlyReadItsRegion() {
+        var bytes = "xx{\"id\":1}{\"id\":2}".getBytes(StandardCharsets.UTF_8);
+
+        assertThat(view.wrap(bytes, 2, 8).id()).isEqualTo(1L);
+        assertThat(view.wrap(bytes, 10, 8).id()).isEqualTo(2L);
+        assertThatThrownBy(() -> view.wrap(bytes, 10, 9)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    private void wrap(String json) {
+        var bytes = json.getBytes(StandardCharsets.UTF_8);
+        view.wrap(bytes, 0, bytes.length);
+    }
+}
@@ -0,0 +1,8 @@
+package org.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "producer.batch")
+public record BatchProperties(@DefaultValue("1000") int maxSize) {
+}
@@ -0,0 +1,12 @@
+package org.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+@ConfigurationProperties(prefix = "producer.compression")
+public record CompressionProperties(@DefaultValue("true") boolean enabled,
+                                    @DefaultValue("8KB") DataSize threshold,
+                                    @DefaultValue("6") int gzipLevel,
+                                    @DefaultValue("3") int zstdLevel) {
+}
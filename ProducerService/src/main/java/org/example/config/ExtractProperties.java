@@ -0,0 +1,9 @@
+package org.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "producer.extract")
+public record ExtractProperties(@DefaultValue("1000") int flushRecords,
+                                @DefaultValue("65536") int flushBytes) {
+}
@@ -0,0 +1,25 @@
+package org.example.config;
+
+import org.apache.coyote.http2.Http2Protocol;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatConnectorCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(name = "server.http2.enabled", havingValue = "true")
+public class Http2Configuration {
+    @Bean
+    public TomcatConnectorCustomizer http2ConnectorCustomizer(Http2Properties properties) {
+        return connector -> {
+            for (var upgradeProtocol : connector.findUpgradeProtocols()) {
+                if (upgradeProtocol instanceof Http2Protocol http2Protocol) {
+                    http2Protocol.setMaxConcurrentStreams(properties.maxConcurrentStreams());
+                    http2Protocol.setMaxConcurrentStreamExecution(properties.maxConcurrentStreamExecution());
+                    http2Protocol.setInitialWindowSize(properties.initialWindowSize());
+                    http2Protocol.setKeepAliveTimeout(properties.keepAliveTimeout().toMillis());
+                }
+            }
+        };
+    }
+}
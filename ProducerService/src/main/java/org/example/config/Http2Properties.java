@@ -0,0 +1,13 @@
+package org.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "producer.http2")
+public record Http2Properties(@DefaultValue("200") int maxConcurrentStreams,
+                             @DefaultValue("200") int maxConcurrentStreamExecution,
+                             @DefaultValue("1048576") int initialWindowSize,
+                             @DefaultValue("20s") Duration keepAliveTimeout) {
+}
@@ -0,0 +1,11 @@
+package org.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+@ConfigurationProperties(prefix = "producer.snapshot")
+public record SnapshotProperties(@DefaultValue("false") boolean enabled,
+                                 @DefaultValue("1MB") DataSize initialSize,
+                                 @DefaultValue("256MB") DataSize maxSize) {
+}
@@ -0,0 +1,9 @@
+package org.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "producer.store")
+public record UserStoreProperties(@DefaultValue("64") int segments,
+                                  @DefaultValue("1024") int initialSegmentCapacity) {
+}
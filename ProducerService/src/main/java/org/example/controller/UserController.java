@@ -1,65 +1,172 @@
 package org.example.controller;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.config.BatchProperties;
+import org.example.config.SmileConfiguration;
 import org.example.data.User;
+import org.example.deadline.Deadline;
+import org.example.exception.UserNotFoundException;
 import org.example.response.ResultResponse;
+import org.example.store.UserStore;
+import org.example.stream.ResponseCompression;
+import org.example.stream.UserNdjsonWriter;
+import org.example.stream.UserSmileWriter;
+import org.example.stream.UserSnapshotCache;
+import org.example.timing.ServerTiming;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StreamUtils;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 
 @RestController
 @RequestMapping("/v1")
 @Slf4j
 @RequiredArgsConstructor
 public class UserController {
-    private final ObjectMapper objectMapper;
+    private final UserStore userStore;
+    private final UserNdjsonWriter userNdjsonWriter;
+    private final UserSmileWriter userSmileWriter;
+    private final UserSnapshotCache userSnapshotCache;
+    private final BatchProperties batchProperties;
+    private final ResponseCompression responseCompression;
 
-    @PostMapping(value = "user", consumes = {MediaType.APPLICATION_JSON_VALUE}, produces = {MediaType.APPLICATION_JSON_VALUE})
+    @PostMapping(value = "user", consumes = {MediaType.APPLICATION_JSON_VALUE, SmileConfiguration.APPLICATION_SMILE_VALUE}, produces = {MediaType.APPLICATION_JSON_VALUE, SmileConfiguration.APPLICATION_SMILE_VALUE})
     public ResponseEntity<ResultResponse<User>> create(@RequestBody @Validated User user) {
         log.info("create user: {}", user);
-        var data = user.setId(1L);
+        var data = userStore.create(user);
         return ResponseEntity.ok(ResultResponse.success(data));
     }
 
-    @GetMapping(value = "user", produces = {MediaType.APPLICATION_JSON_VALUE})
-    public ResponseEntity<ResultResponse<User>> retrieve(@RequestParam Long id) {
+    @PostMapping(value = "users/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, SmileConfiguration.APPLICATION_SMILE_VALUE}, produces = {MediaType.APPLICATION_JSON_VALUE, SmileConfiguration.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<ResultResponse<List<ResultResponse<User>>>> createBatch(@RequestBody List<User> users) {
+        log.info("create users in batch, size: {}", users.size());
+        if (users.size() > batchProperties.maxSize()) {
+            throw new IllegalArgumentException("Batch size exceeds " + batchProperties.maxSize());
+        }
+        var results = new ArrayList<ResultResponse<User>>(users.size());
+        for (User user : users) {
+            results.add(user == null
+                    ? ResultResponse.fail(HttpStatus.BAD_REQUEST.value(), "User is required")
+                    : ResultResponse.success(userStore.create(user)));
+        }
+        return ResponseEntity.ok(ResultResponse.success(results));
+    }
+
+    @GetMapping(value = "user", produces = {MediaType.APPLICATION_JSON_VALUE, SmileConfiguration.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<ResultResponse<User>> retrieve(
+            @RequestParam Long id, @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         log.info("get user info, id: {}", id);
-        var user = User.builder().id(1L).name("test").age(18).build();
-        return ResponseEntity.ok(ResultResponse.success(user));
+        var found = userStore.findVersioned(id);
+        if (found == null) {
+            throw new UserNotFoundException(id);
+        }
+        var etag = "\"%x-%d-%d%s\"".formatted(userStore.epoch(), id, found.version(),
+                prefersSmile(accept) ? "-smile" : "");
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(ResultResponse.success(found.user()));
     }
 
-    @PutMapping(value = "user", consumes = {MediaType.APPLICATION_JSON_VALUE}, produces = {MediaType.APPLICATION_JSON_VALUE})
+    @PutMapping(value = "user", consumes = {MediaType.APPLICATION_JSON_VALUE, SmileConfiguration.APPLICATION_SMILE_VALUE}, produces = {MediaType.APPLICATION_JSON_VALUE, SmileConfiguration.APPLICATION_SMILE_VALUE})
     public ResponseEntity<ResultResponse<User>> update(@RequestBody @Validated User user) {
         log.info("update user info, user: {}", user);
-        return ResponseEntity.ok(ResultResponse.success(user.setId(1L).setName("updated")));
+        if (user.getId() == null) {
+            throw new IllegalArgumentException("User id is required");
+        }
+        var data = userStore.update(user);
+        if (data == null) {
+            throw new UserNotFoundException(user.getId());
+        }
+        return ResponseEntity.ok(ResultResponse.success(data));
     }
 
-    @DeleteMapping(value = "user", produces = {MediaType.APPLICATION_JSON_VALUE})
+    @DeleteMapping(value = "user", produces = {MediaType.APPLICATION_JSON_VALUE, SmileConfiguration.APPLICATION_SMILE_VALUE})
     public ResponseEntity<ResultResponse<Void>> delete(@RequestParam Long id) {
         log.info("delete user, id: {}", id);
-        return ResponseEntity.ok(ResultResponse.success());
+        if (!userStore.delete(id)) {
+            throw new UserNotFoundException(id);
+        }
+        return ResponseEntity.ok(ResultResponse.ok());
     }
 
-    @GetMapping(value = "users", produces = {MediaType.APPLICATION_JSON_VALUE})
-    public ResponseEntity<StreamingResponseBody> extract() {
+    @GetMapping(value = "users", produces = {MediaType.APPLICATION_JSON_VALUE, SmileConfiguration.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<StreamingResponseBody> extract(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest, HttpServletResponse response) {
         log.info("extract user info");
-        var users = new ArrayList<User>();
-        for (int i = 1; i <= 18; i++) {
-            var user = User.builder().id((long) i).name("test" + i).age(i).build();
-            users.add(user);
+        var smile = prefersSmile(accept);
+        var encoding = responseCompression.negotiate(acceptEncoding);
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        if (responseCompression.isEnabled()) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        var etag = "\"%x-%d%s%s\"".formatted(userStore.epoch(), userStore.version(), smile ? "-smile" : "",
+                encoding == null ? "" : "-" + encoding);
+        // also sets the ETag header on the response
+        if (webRequest.checkNotModified(etag)) {
+            return null;
         }
+        var timing = ServerTiming.current();
+        var deadline = Deadline.current();
         StreamingResponseBody streamingResponseBody = outputStream -> {
-            for (User user : users) {
-                outputStream.write(objectMapper.writeValueAsBytes(user));
-                outputStream.write("\n".getBytes());
+            long start = System.nanoTime();
+            var stage = "serialize";
+            // the response is only ended after the body returns, an export stopped by its deadline is broken off
+            try (var out = responseCompression.compress(StreamUtils.nonClosing(outputStream), encoding,
+                    () -> response.setHeader(HttpHeaders.CONTENT_ENCODING, encoding))) {
+                try {
+                    var cursor = userStore.cursor();
+                    if (deadline != null) {
+                        deadline.check();
+                        cursor = deadline.guard(cursor);
+                    }
+                    if (smile) {
+                        long records = userSmileWriter.write(cursor, out);
+                        log.debug("extracted {} users as smile", records);
+                        return;
+                    }
+                    if (userSnapshotCache.isEnabled() && userSnapshotCache.write(out)) {
+                        stage = "snapshot";
+                        return;
+                    }
+                    long records = userNdjsonWriter.write(cursor, out);
+                    log.debug("extracted {} users", records);
+                } finally {
+                    if (timing != null) {
+                        timing.record(stage, start);
+                    }
+                }
             }
         };
-        return ResponseEntity.ok(streamingResponseBody);
+        return ResponseEntity.ok()
+                .contentType(smile ? SmileConfiguration.APPLICATION_SMILE : MediaType.APPLICATION_JSON)
+                .body(streamingResponseBody);
+    }
+
+    private static boolean prefersSmile(String accept) {
+        if (accept == null) {
+            return false;
+        }
+        var mediaTypes = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        mediaTypes.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (var mediaType : mediaTypes) {
+            if (mediaType.getQualityValue() > 0 && mediaType.includes(MediaType.APPLICATION_JSON)) {
+                return false;
+            }
+            if (mediaType.getQualityValue() > 0 && mediaType.includes(SmileConfiguration.APPLICATION_SMILE)) {
+                return true;
+            }
+        }
+        return false;
     }
 }
\ No newline at end of file
@@ -0,0 +1,73 @@
+package org.example.deadline;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.example.exception.DeadlineExceededException;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The time a caller still waits for a request, taken from its {@link #HEADER}.
+ */
+public final class Deadline {
+    // the caller's remaining budget in milliseconds
+    public static final String HEADER = "Request-Timeout";
+    static final String ATTRIBUTE = Deadline.class.getName();
+    private static final int CHECK_EVERY = 256;
+
+    private final long startNanos;
+    // toNanos saturates, and elapsed time is subtracted from it rather than the budget added to a clock reading
+    private final long budgetNanos;
+
+    Deadline(long budgetMillis) {
+        this.startNanos = System.nanoTime();
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+    }
+
+    public static Deadline current() {
+        var attributes = RequestContextHolder.getRequestAttributes();
+        return attributes == null
+                ? null
+                : (Deadline) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    static Deadline of(HttpServletRequest request) {
+        return (Deadline) request.getAttribute(ATTRIBUTE);
+    }
+
+    public long remainingNanos() {
+        return budgetNanos - (System.nanoTime() - startNanos);
+    }
+
+    public boolean expired() {
+        return remainingNanos() <= 0;
+    }
+
+    public void check() {
+        if (expired()) {
+            throw new DeadlineExceededException();
+        }
+    }
+
+    public <T> Iterator<T> guard(Iterator<T> iterator) {
+        return new Iterator<>() {
+            private int count;
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public T next() {
+                if (++count == CHECK_EVERY) {
+                    count = 0;
+                    check();
+                }
+                return iterator.next();
+            }
+        };
+    }
+}
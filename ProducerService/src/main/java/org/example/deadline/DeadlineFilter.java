@@ -0,0 +1,47 @@
+package org.example.deadline;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.response.ResultResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+@Component
+public class DeadlineFilter extends OncePerRequestFilter {
+    private final ObjectMapper objectMapper;
+
+    public DeadlineFilter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        var budget = request.getHeader(Deadline.HEADER);
+        if (budget != null) {
+            long budgetMillis;
+            try {
+                budgetMillis = Long.parseLong(budget.trim());
+            } catch (NumberFormatException e) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+            if (budgetMillis <= 0) {
+                response.setStatus(HttpStatus.GATEWAY_TIMEOUT.value());
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                objectMapper.writeValue(response.getOutputStream(), ResultResponse.fail(
+                        HttpStatus.GATEWAY_TIMEOUT.value(), "Request deadline exceeded before it was handled"));
+                return;
+            }
+            request.setAttribute(Deadline.ATTRIBUTE, new Deadline(budgetMillis));
+        }
+        filterChain.doFilter(request, response);
+    }
+}
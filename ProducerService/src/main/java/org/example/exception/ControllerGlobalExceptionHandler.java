@@ -1,5 +1,6 @@
 package org.example.exception;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.example.response.ResultResponse;
 import org.springframework.http.HttpStatus;
@@ -10,6 +11,31 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 @RestControllerAdvice
 @Slf4j
 public class ControllerGlobalExceptionHandler {
+    @ExceptionHandler(UserNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public ResultResponse<String> handleUserNotFoundException(UserNotFoundException e) {
+        log.warn(e.getMessage());
+        return ResultResponse.fail(HttpStatus.NOT_FOUND.value(), e.getMessage());
+    }
+
+    @ExceptionHandler(DeadlineExceededException.class)
+    @ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+    public ResultResponse<String> handleDeadlineExceededException(DeadlineExceededException e,
+                                                                  HttpServletResponse response) {
+        if (response.isCommitted()) {
+            throw e;
+        }
+        log.warn(e.getMessage());
+        return ResultResponse.fail(HttpStatus.GATEWAY_TIMEOUT.value(), e.getMessage());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ResultResponse<String> handleIllegalArgumentException(IllegalArgumentException e) {
+        log.warn(e.getMessage());
+        return ResultResponse.fail(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+    }
+
     @ExceptionHandler(Exception.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ResultResponse<String> handleException(Exception e) {
@@ -0,0 +1,7 @@
+package org.example.exception;
+
+public class DeadlineExceededException extends RuntimeException {
+    public DeadlineExceededException() {
+        super("Request deadline exceeded", null, false, false);
+    }
+}
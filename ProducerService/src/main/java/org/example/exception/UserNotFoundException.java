@@ -0,0 +1,7 @@
+package org.example.exception;
+
+public class UserNotFoundException extends RuntimeException {
+    public UserNotFoundException(Long id) {
+        super("User not found, id: " + id);
+    }
+}
@@ -0,0 +1,339 @@
+package org.example.store;
+
+import org.example.config.UserStoreProperties;
+import org.example.data.User;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * In-memory user store keyed by primitive {@code long} ids.
+ */
+@Component
+public class UserStore {
+    private static final long FREE = 0L;
+    private static final int NO_AGE = Integer.MIN_VALUE;
+
+    private final Segment[] segments;
+    private final int segmentMask;
+    private final AtomicLong sequence = new AtomicLong();
+    private final long epoch = ThreadLocalRandom.current().nextLong() >>> 1;
+
+    public UserStore(UserStoreProperties properties) {
+        int segmentCount = powerOfTwoAtLeast(properties.segments());
+        // the load factor keeps at least one slot free, which terminates probing and backward-shift deletion
+        int segmentCapacity = Math.max(4, powerOfTwoAtLeast(properties.initialSegmentCapacity()));
+        this.segments = new Segment[segmentCount];
+        this.segmentMask = segmentCount - 1;
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+    }
+
+    public User create(User user) {
+        long id = sequence.incrementAndGet();
+        long hash = hash(id);
+        segmentFor(hash).insert(id, hash, user.getName(), user.getAge());
+        return new User(id, user.getName(), user.getAge());
+    }
+
+    public User find(long id) {
+        if (id <= FREE) {
+            return null;
+        }
+        long hash = hash(id);
+        return segmentFor(hash).find(id, hash, Table::userAt);
+    }
+
+    public VersionedUser findVersioned(long id) {
+        if (id <= FREE) {
+            return null;
+        }
+        long hash = hash(id);
+        return segmentFor(hash).find(id, hash, Table::versionedUserAt);
+    }
+
+    public User update(User user) {
+        Long id = user.getId();
+        if (id == null || id <= FREE) {
+            return null;
+        }
+        long hash = hash(id);
+        return segmentFor(hash).update(id, hash, user.getName(), user.getAge());
+    }
+
+    public boolean delete(long id) {
+        if (id <= FREE) {
+            return false;
+        }
+        long hash = hash(id);
+        return segmentFor(hash).delete(id, hash);
+    }
+
+    public Iterator<User> cursor() {
+        return new Cursor(sequence.get());
+    }
+
+    public long version() {
+        long version = 0;
+        for (Segment segment : segments) {
+            version += segment.modCount;
+        }
+        return version;
+    }
+
+    public long epoch() {
+        return epoch;
+    }
+
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    private Segment segmentFor(long hash) {
+        return segments[(int) (hash >>> 32) & segmentMask];
+    }
+
+    private static long hash(long id) {
+        // murmur3 fmix64: the low bits pick the slot, the high bits pick the segment
+        id ^= id >>> 33;
+        id *= 0xff51afd7ed558ccdL;
+        id ^= id >>> 33;
+        id *= 0xc4ceb9fe1a85ec53L;
+        id ^= id >>> 33;
+        return id;
+    }
+
+    private static int powerOfTwoAtLeast(int size) {
+        return size <= 1 ? 1 : Integer.highestOneBit(size - 1) << 1;
+    }
+
+    private final class Cursor implements Iterator<User> {
+        private final long lastId;
+        private long id;
+        private User next;
+
+        private Cursor(long lastId) {
+            this.lastId = lastId;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && id < lastId) {
+                next = find(++id);
+            }
+            return next != null;
+        }
+
+        @Override
+        public User next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            var user = next;
+            next = null;
+            return user;
+        }
+    }
+
+    private static final class Segment {
+        private final StampedLock lock = new StampedLock();
+        private volatile Table table;
+        private volatile long modCount;
+        private int size;
+
+        private Segment(int capacity) {
+            this.table = new Table(capacity);
+        }
+
+        private <T> T find(long id, long hash, SlotReader<T> reader) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0L) {
+                T result = table.read(id, hash, reader);
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            }
+            stamp = lock.readLock();
+            try {
+                return table.read(id, hash, reader);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        private void insert(long id, long hash, String name, Integer age) {
+            long stamp = lock.writeLock();
+            try {
+                var current = table;
+                if (size >= current.threshold) {
+                    current = current.grow();
+                    table = current;
+                }
+                current.put(id, hash, name, age == null ? NO_AGE : age, 0);
+                size++;
+                modCount++;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private User update(long id, long hash, String name, Integer age) {
+            long stamp = lock.writeLock();
+            try {
+                var current = table;
+                int index = current.indexOf(id, hash);
+                if (index < 0) {
+                    return null;
+                }
+                if (name != null) {
+                    current.names[index] = name;
+                }
+                if (age != null) {
+                    current.ages[index] = age;
+                }
+                current.versions[index]++;
+                modCount++;
+                return current.userAt(index);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private boolean delete(long id, long hash) {
+            long stamp = lock.writeLock();
+            try {
+                var current = table;
+                int index = current.indexOf(id, hash);
+                if (index < 0) {
+                    return false;
+                }
+                current.removeAt(index);
+                size--;
+                modCount++;
+                return true;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private int size() {
+            long stamp = lock.readLock();
+            try {
+                return size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface SlotReader<T> {
+        T read(Table table, int index);
+    }
+
+    private static final class Table {
+        private final long[] ids;
+        private final String[] names;
+        private final int[] ages;
+        private final int[] versions;
+        private final int mask;
+        private final int threshold;
+
+        private Table(int capacity) {
+            this.ids = new long[capacity];
+            this.names = new String[capacity];
+            this.ages = new int[capacity];
+            this.versions = new int[capacity];
+            this.mask = capacity - 1;
+            this.threshold = capacity - (capacity >>> 2);
+        }
+
+        private int indexOf(long id, long hash) {
+            int index = (int) hash & mask;
+            // bounded so that a racing optimistic reader can never spin on a table being rewritten
+            for (int probes = 0; probes <= mask; probes++) {
+                long current = ids[index];
+                if (current == id) {
+                    return index;
+                }
+                if (current == FREE) {
+                    return -1;
+                }
+                index = (index + 1) & mask;
+            }
+            return -1;
+        }
+
+        private <T> T read(long id, long hash, SlotReader<T> reader) {
+            int index = indexOf(id, hash);
+            return index < 0 ? null : reader.read(this, index);
+        }
+
+        private User userAt(int index) {
+            int age = ages[index];
+            return new User(ids[index], names[index], age == NO_AGE ? null : age);
+        }
+
+        private VersionedUser versionedUserAt(int index) {
+            return new VersionedUser(userAt(index), versions[index]);
+        }
+
+        private void put(long id, long hash, String name, int age, int version) {
+            int index = (int) hash & mask;
+            while (ids[index] != FREE) {
+                index = (index + 1) & mask;
+            }
+            names[index] = name;
+            ages[index] = age;
+            versions[index] = version;
+            ids[index] = id;
+        }
+
+        private void removeAt(int index) {
+            int free = index;
+            int next = index;
+            while (true) {
+                next = (next + 1) & mask;
+                long id = ids[next];
+                if (id == FREE) {
+                    break;
+                }
+                int home = (int) hash(id) & mask;
+                // leave the entry where it is if its home slot lies cyclically in (free, next]
+                boolean reachable = free <= next ? free < home && home <= next : free < home || home <= next;
+                if (reachable) {
+                    continue;
+                }
+                ids[free] = id;
+                names[free] = names[next];
+                ages[free] = ages[next];
+                versions[free] = versions[next];
+                free = next;
+            }
+            ids[free] = FREE;
+            names[free] = null;
+            ages[free] = 0;
+            versions[free] = 0;
+        }
+
+        private Table grow() {
+            var grown = new Table(ids.length << 1);
+            for (int i = 0; i < ids.length; i++) {
+                long id = ids[i];
+                if (id != FREE) {
+                    grown.put(id, hash(id), names[i], ages[i], versions[i]);
+                }
+            }
+            return grown;
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package org.example.store;
+
+import org.example.data.User;
+
+public record VersionedUser(User user, int version) {
+}
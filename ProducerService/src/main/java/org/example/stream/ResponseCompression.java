@@ -0,0 +1,167 @@
+package org.example.stream;
+
+import com.github.luben.zstd.ZstdOutputStreamNoFinalizer;
+import org.example.config.CompressionProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Negotiates and applies the content coding of streamed responses.
+ */
+@Component
+public class ResponseCompression {
+    public static final String ZSTD = "zstd";
+    public static final String GZIP = "gzip";
+    // in order of preference when the client weights them equally
+    private static final String[] ENCODINGS = {ZSTD, GZIP};
+
+    private final boolean enabled;
+    private final int threshold;
+    private final int gzipLevel;
+    private final int zstdLevel;
+
+    public ResponseCompression(CompressionProperties properties) {
+        this.enabled = properties.enabled();
+        this.threshold = (int) Math.max(0, properties.threshold().toBytes());
+        this.gzipLevel = properties.gzipLevel();
+        this.zstdLevel = properties.zstdLevel();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String negotiate(String acceptEncoding) {
+        if (!enabled || acceptEncoding == null) {
+            return null;
+        }
+        String chosen = null;
+        double chosenQuality = 0;
+        for (String encoding : ENCODINGS) {
+            double quality = quality(acceptEncoding, encoding);
+            if (quality > chosenQuality) {
+                chosen = encoding;
+                chosenQuality = quality;
+            }
+        }
+        return chosen;
+    }
+
+    public OutputStream compress(OutputStream outputStream, String encoding, Runnable onCompress) {
+        return encoding == null ? outputStream : new ThresholdOutputStream(outputStream, encoding, onCompress);
+    }
+
+    private static double quality(String acceptEncoding, String encoding) {
+        double wildcard = 0;
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.split(";");
+            String coding = params[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1;
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(param.substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (coding.equals(encoding)) {
+                return quality;
+            }
+            if (coding.equals("*")) {
+                wildcard = quality;
+            }
+        }
+        return wildcard;
+    }
+
+    private final class ThresholdOutputStream extends OutputStream {
+        private final OutputStream target;
+        private final String encoding;
+        private final Runnable onCompress;
+        private byte[] pending = new byte[Math.min(threshold, 8192)];
+        private int pendingLength;
+        private OutputStream compressor;
+
+        private ThresholdOutputStream(OutputStream target, String encoding, Runnable onCompress) {
+            this.target = target;
+            this.encoding = encoding;
+            this.onCompress = onCompress;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (compressor != null) {
+                compressor.write(b, off, len);
+                return;
+            }
+            if (pendingLength + len <= threshold) {
+                if (pendingLength + len > pending.length) {
+                    var grown = new byte[Math.min(threshold, Math.max(pendingLength + len, pending.length << 1))];
+                    System.arraycopy(pending, 0, grown, 0, pendingLength);
+                    pending = grown;
+                }
+                System.arraycopy(b, off, pending, pendingLength, len);
+                pendingLength += len;
+                return;
+            }
+            onCompress.run();
+            compressor = open(new FilterOutputStream(target) {
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    out.write(b, off, len);
+                }
+
+                @Override
+                public void close() throws IOException {
+                    // finishing the compressed stream must not close the response
+                    flush();
+                }
+            });
+            compressor.write(pending, 0, pendingLength);
+            pending = null;
+            compressor.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (compressor != null) {
+                compressor.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (compressor != null) {
+                compressor.close();
+            } else if (pending != null) {
+                target.write(pending, 0, pendingLength);
+                pending = null;
+                target.flush();
+            }
+        }
+
+        private OutputStream open(OutputStream out) throws IOException {
+            if (ZSTD.equals(encoding)) {
+                return new ZstdOutputStreamNoFinalizer(out, zstdLevel);
+            }
+            return new GZIPOutputStream(out, 8192, true) {
+                {
+                    def.setLevel(gzipLevel);
+                }
+            };
+        }
+    }
+}
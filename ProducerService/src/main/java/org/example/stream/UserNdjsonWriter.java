@@ -0,0 +1,72 @@
+package org.example.stream;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.example.config.ExtractProperties;
+import org.example.data.User;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+
+@Component
+public class UserNdjsonWriter {
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter userWriter;
+    private final int flushRecords;
+    private final int flushBytes;
+
+    public UserNdjsonWriter(ObjectMapper objectMapper, ExtractProperties properties) {
+        this.objectMapper = objectMapper;
+        this.userWriter = objectMapper.writerFor(User.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.flushRecords = Math.max(1, properties.flushRecords());
+        this.flushBytes = Math.max(1, properties.flushBytes());
+    }
+
+    public long write(Iterator<User> users, OutputStream outputStream) throws IOException {
+        var counter = new CountingOutputStream(outputStream);
+        long records = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(counter)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            long flushedBytes = 0;
+            int pendingRecords = 0;
+            while (users.hasNext()) {
+                userWriter.writeValue(generator, users.next());
+                generator.writeRaw('\n');
+                records++;
+                long pendingBytes = counter.count - flushedBytes + Math.max(0, generator.getOutputBuffered());
+                if (++pendingRecords >= flushRecords || pendingBytes >= flushBytes) {
+                    generator.flush();
+                    flushedBytes = counter.count;
+                    pendingRecords = 0;
+                }
+            }
+        }
+        return records;
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        private CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
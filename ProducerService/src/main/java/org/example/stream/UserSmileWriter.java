@@ -0,0 +1,77 @@
+package org.example.stream;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.example.config.ExtractProperties;
+import org.example.data.User;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+
+@Component
+public class UserSmileWriter {
+    private static final int BUFFER_SIZE = 8192;
+
+    private final ObjectMapper frameMapper;
+    private final ObjectWriter userWriter;
+    private final int flushRecords;
+    private final int flushBytes;
+
+    public UserSmileWriter(MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter,
+                           ExtractProperties properties) {
+        var objectMapper = smileHttpMessageConverter.getObjectMapper();
+        var frameFactory = ((SmileFactory) objectMapper.getFactory()).copy()
+                .disable(SmileGenerator.Feature.WRITE_HEADER)
+                .disable(SmileGenerator.Feature.CHECK_SHARED_NAMES)
+                .disable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES);
+        this.frameMapper = objectMapper.copyWith(frameFactory);
+        this.userWriter = frameMapper.writerFor(User.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.flushRecords = Math.max(1, properties.flushRecords());
+        this.flushBytes = Math.max(1, properties.flushBytes());
+    }
+
+    public long write(Iterator<User> users, OutputStream outputStream) throws IOException {
+        var frame = new ByteArrayOutputStream(256);
+        var out = new BufferedOutputStream(outputStream, BUFFER_SIZE);
+        long records = 0;
+        try (JsonGenerator generator = frameMapper.getFactory().createGenerator(frame)) {
+            long pendingBytes = 0;
+            int pendingRecords = 0;
+            while (users.hasNext()) {
+                userWriter.writeValue(generator, users.next());
+                generator.flush();
+                pendingBytes += writeVarint(out, frame.size()) + frame.size();
+                frame.writeTo(out);
+                frame.reset();
+                records++;
+                if (++pendingRecords >= flushRecords || pendingBytes >= flushBytes) {
+                    out.flush();
+                    pendingBytes = 0;
+                    pendingRecords = 0;
+                }
+            }
+        }
+        out.flush();
+        return records;
+    }
+
+    private static int writeVarint(OutputStream out, int value) throws IOException {
+        int bytes = 1;
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+            bytes++;
+        }
+        out.write(value);
+        return bytes;
+    }
+}
@@ -0,0 +1,156 @@
+package org.example.stream;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.example.config.SnapshotProperties;
+import org.example.store.UserStore;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps the encoded {@code /v1/users} NDJSON export in memory.
+ */
+@Component
+@Slf4j
+public class UserSnapshotCache {
+    private static final long NO_VERSION = -1L;
+
+    private final UserStore userStore;
+    private final UserNdjsonWriter userNdjsonWriter;
+    private final boolean enabled;
+    private final int initialSize;
+    private final int maxSize;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer rebuilds;
+    private volatile Snapshot snapshot;
+    private long oversizedVersion = NO_VERSION;
+
+    public UserSnapshotCache(UserStore userStore, UserNdjsonWriter userNdjsonWriter, SnapshotProperties properties,
+                             MeterRegistry meterRegistry) {
+        this.userStore = userStore;
+        this.userNdjsonWriter = userNdjsonWriter;
+        this.enabled = properties.enabled();
+        this.maxSize = (int) Math.min(properties.maxSize().toBytes(), Integer.MAX_VALUE - 8);
+        this.initialSize = (int) Math.min(properties.initialSize().toBytes(), maxSize);
+        this.hits = Counter.builder("user.snapshot.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("user.snapshot.requests").tag("result", "miss").register(meterRegistry);
+        this.rebuilds = Timer.builder("user.snapshot.rebuild").register(meterRegistry);
+        Gauge.builder("user.snapshot.size", this, UserSnapshotCache::size)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean write(OutputStream outputStream) throws IOException {
+        var current = currentSnapshot();
+        if (current == null) {
+            return false;
+        }
+        outputStream.write(current.bytes(), 0, current.length());
+        return true;
+    }
+
+    private Snapshot currentSnapshot() throws IOException {
+        var current = snapshot;
+        if (current != null && current.version() == userStore.version()) {
+            hits.increment();
+            return current;
+        }
+        misses.increment();
+        rebuildLock.lock();
+        try {
+            long version = userStore.version();
+            current = snapshot;
+            if (current != null && current.version() == version) {
+                return current;
+            }
+            if (version == oversizedVersion) {
+                return null;
+            }
+            current = rebuild(version);
+            snapshot = current;
+            return current;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private Snapshot rebuild(long version) throws IOException {
+        long start = System.nanoTime();
+        // sized to the last snapshot, so a rebuild after a write rarely has to grow its array
+        var previous = snapshot;
+        var outputStream = new SnapshotOutputStream(previous == null ? initialSize
+                : Math.max(initialSize, previous.length()), maxSize);
+        try {
+            long records = userNdjsonWriter.write(userStore.cursor(), outputStream);
+            log.debug("rebuilt user snapshot, version: {}, records: {}, bytes: {}", version, records,
+                    outputStream.length);
+        } catch (SnapshotTooLargeException e) {
+            log.warn("user snapshot exceeds {} bytes, streaming from the store instead", maxSize);
+            oversizedVersion = version;
+            return null;
+        } finally {
+            rebuilds.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        return new Snapshot(version, outputStream.bytes, outputStream.length);
+    }
+
+    private double size() {
+        var current = snapshot;
+        return current == null ? 0 : current.length();
+    }
+
+    private record Snapshot(long version, byte[] bytes, int length) {
+    }
+
+    private static final class SnapshotOutputStream extends OutputStream {
+        private final int maxSize;
+        private byte[] bytes;
+        private int length;
+
+        private SnapshotOutputStream(int initialSize, int maxSize) {
+            this.maxSize = maxSize;
+            this.bytes = new byte[initialSize];
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            ensureRemaining(1);
+            bytes[length++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            ensureRemaining(len);
+            System.arraycopy(b, off, bytes, length, len);
+            length += len;
+        }
+
+        private void ensureRemaining(int remaining) throws SnapshotTooLargeException {
+            if (bytes.length - length >= remaining) {
+                return;
+            }
+            long required = (long) length + remaining;
+            if (required > maxSize) {
+                throw new SnapshotTooLargeException();
+            }
+            bytes = Arrays.copyOf(bytes, (int) Math.min(maxSize, Math.max(required, (long) bytes.length << 1)));
+        }
+    }
+
+    private static final class SnapshotTooLargeException extends IOException {
+    }
+}
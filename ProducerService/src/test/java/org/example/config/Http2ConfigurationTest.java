@@ -0,0 +1,40 @@
+package org.example.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "server.http2.enabled=true")
+class Http2ConfigurationTest {
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void serverShouldMultiplexCleartextHttp2() {
+        var httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).build();
+        var request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/v1/users")).GET().build();
+
+        // the first exchange upgrades the connection, the rest are streams on it
+        var upgraded = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString()).join();
+        var responses = IntStream.range(0, 16)
+                .mapToObj(i -> httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString()))
+                .map(CompletableFuture::join)
+                .toList();
+
+        assertThat(upgraded.statusCode()).isEqualTo(200);
+        assertThat(responses).allSatisfy(response -> {
+            assertThat(response.statusCode()).isEqualTo(200);
+            assertThat(response.version()).isEqualTo(HttpClient.Version.HTTP_2);
+        });
+    }
+}
@@ -1,16 +1,37 @@
 package org.example.controller;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileParser;
+import org.example.config.SmileConfiguration;
 import org.example.data.User;
+import org.example.deadline.Deadline;
+import org.example.response.ResultResponse;
+import org.example.store.UserStore;
+import org.example.timing.ServerTiming;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.zip.GZIPInputStream;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.iterableWithSize;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -21,6 +42,9 @@ public class UserControllerTest {
     private MockMvc mockMvc;
     @Autowired
     private ObjectMapper objectMapper;
+    @Autowired
+    private UserStore userStore;
+    private final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
 
     @Test
     public void createShouldSuccess() throws Exception {
@@ -34,28 +58,164 @@ public class UserControllerTest {
                 .andExpect(jsonPath("$.success").value(true))
                 .andExpect(jsonPath("$.code").value(200))
                 .andExpect(jsonPath("$.msg").value("Success"))
-                .andExpect(jsonPath("$.data.id").value(1))
+                .andExpect(jsonPath("$.data.id").isNumber())
                 .andExpect(jsonPath("$.data.name").value("test"))
                 .andExpect(jsonPath("$.data.age").value(18));
     }
 
+    @Test
+    public void createBatchShouldReturnResultPerItem() throws Exception {
+        var users = Arrays.asList(User.builder().name("first").age(1).build(), null,
+                User.builder().name("second").build());
+
+        mockMvc.perform(post("/v1/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .content(objectMapper.writeValueAsString(users)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.length()").value(3))
+                .andExpect(jsonPath("$.data[0].success").value(true))
+                .andExpect(jsonPath("$.data[0].data.id").isNumber())
+                .andExpect(jsonPath("$.data[0].data.name").value("first"))
+                .andExpect(jsonPath("$.data[1].success").value(false))
+                .andExpect(jsonPath("$.data[1].code").value(400))
+                .andExpect(jsonPath("$.data[2].success").value(true))
+                .andExpect(jsonPath("$.data[2].data.name").value("second"))
+                .andExpect(jsonPath("$.data[2].data.age").doesNotExist());
+    }
+
+    @Test
+    public void createBatchShouldFailedWhenBatchTooLarge() throws Exception {
+        var users = Collections.nCopies(1001, User.builder().name("test").build());
+
+        mockMvc.perform(post("/v1/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .content(objectMapper.writeValueAsString(users)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.code").value(400));
+    }
+
+    @Test
+    public void retrieveShouldReportServerTiming() throws Exception {
+        var created = userStore.create(User.builder().name("test").age(18).build());
+
+        mockMvc.perform(get("/v1/user")
+                        .param("id", created.getId().toString())
+                        .header(ServerTiming.SAMPLED_HEADER, "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ServerTiming.HEADER, matchesPattern("handler;dur=\\d+\\.\\d{3}")));
+        mockMvc.perform(get("/v1/user")
+                        .param("id", created.getId().toString())
+                        .header(ServerTiming.SAMPLED_HEADER, "0"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(ServerTiming.HEADER));
+    }
+
+    @Test
+    public void retrieveShouldAnswerGatewayTimeoutWhenDeadlinePassed() throws Exception {
+        var created = userStore.create(User.builder().name("test").age(18).build());
+
+        mockMvc.perform(get("/v1/user")
+                        .param("id", created.getId().toString())
+                        .header(Deadline.HEADER, "0"))
+                .andExpect(status().isGatewayTimeout())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.code").value(504));
+        mockMvc.perform(get("/v1/user")
+                        .param("id", created.getId().toString())
+                        .header(Deadline.HEADER, "10000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.id").value(created.getId()));
+    }
+
     @Test
     public void retrieveShouldSuccess() throws Exception {
+        var created = userStore.create(User.builder().name("test").age(18).build());
+
         mockMvc.perform(get("/v1/user")
-                        .param("id", "1"))
+                        .param("id", created.getId().toString()))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.success").value(true))
                 .andExpect(jsonPath("$.code").value(200))
                 .andExpect(jsonPath("$.msg").value("Success"))
-                .andExpect(jsonPath("$.data.id").value(1))
+                .andExpect(jsonPath("$.data.id").value(created.getId()))
                 .andExpect(jsonPath("$.data.name").value("test"))
                 .andExpect(jsonPath("$.data.age").value(18));
     }
 
+    @Test
+    public void retrieveShouldAnswerSmileWhenPreferred() throws Exception {
+        var created = userStore.create(User.builder().name("test").age(18).build());
+
+        var response = mockMvc.perform(get("/v1/user")
+                        .param("id", created.getId().toString())
+                        .accept(SmileConfiguration.APPLICATION_SMILE, MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(SmileConfiguration.APPLICATION_SMILE))
+                .andExpect(header().string(HttpHeaders.ETAG, endsWith("-smile\"")))
+                .andReturn().getResponse();
+
+        ResultResponse<User> body = smileMapper.readValue(response.getContentAsByteArray(), new TypeReference<>() {
+        });
+        assertThat(body).isEqualTo(ResultResponse.success(created));
+    }
+
+    @Test
+    public void createShouldAcceptSmile() throws Exception {
+        var user = User.builder().name("smile").age(18).build();
+
+        mockMvc.perform(post("/v1/user")
+                        .contentType(SmileConfiguration.APPLICATION_SMILE)
+                        .content(smileMapper.writeValueAsBytes(user)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.name").value("smile"));
+    }
+
+    @Test
+    public void retrieveShouldFailedWhenUserNotFound() throws Exception {
+        mockMvc.perform(get("/v1/user")
+                        .param("id", String.valueOf(Long.MAX_VALUE)))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.code").value(404))
+                .andExpect(jsonPath("$.data").doesNotExist());
+    }
+
+    @Test
+    public void retrieveShouldAnswerNotModifiedUntilUserChanges() throws Exception {
+        var created = userStore.create(User.builder().name("test").age(18).build());
+        var etag = mockMvc.perform(get("/v1/user")
+                        .param("id", created.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues(HttpHeaders.ETAG, iterableWithSize(1)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/v1/user")
+                        .param("id", created.getId().toString())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+
+        userStore.update(User.builder().id(created.getId()).name("updated").build());
+
+        mockMvc.perform(get("/v1/user")
+                        .param("id", created.getId().toString())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+                .andExpect(jsonPath("$.data.name").value("updated"));
+    }
+
     @Test
     public void updateShouldSuccess() throws Exception {
-        User user = new User(1L, "test", 18);
+        var created = userStore.create(User.builder().name("test").age(18).build());
+        User user = User.builder().id(created.getId()).name("updated").build();
 
         mockMvc.perform(put("/v1/user")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -65,25 +225,46 @@ public class UserControllerTest {
                 .andExpect(jsonPath("$.success").value(true))
                 .andExpect(jsonPath("$.code").value(200))
                 .andExpect(jsonPath("$.msg").value("Success"))
-                .andExpect(jsonPath("$.data.id").value(1))
+                .andExpect(jsonPath("$.data.id").value(created.getId()))
                 .andExpect(jsonPath("$.data.name").value("updated"))
                 .andExpect(jsonPath("$.data.age").value(18));
     }
 
+    @Test
+    public void updateShouldFailedWhenUserNotFound() throws Exception {
+        User user = new User(Long.MAX_VALUE, "updated", 18);
+
+        mockMvc.perform(put("/v1/user")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(user)))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.code").value(404));
+    }
+
     @Test
     public void deleteShouldSuccess() throws Exception {
+        var created = userStore.create(User.builder().name("test").age(18).build());
+
         mockMvc.perform(delete("/v1/user")
-                        .param("id", "1"))
+                        .param("id", created.getId().toString()))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.success").value(true))
                 .andExpect(jsonPath("$.code").value(200))
                 .andExpect(jsonPath("$.msg").value("Success"))
                 .andExpect(jsonPath("$.data").doesNotExist());
+        assertThat(userStore.find(created.getId())).isNull();
     }
 
     @Test
     public void extractShouldUsers() throws Exception {
+        var expected = new StringBuilder();
+        for (int i = 1; i <= 18; i++) {
+            var user = userStore.create(User.builder().name("test" + i).age(i).build());
+            expected.append(objectMapper.writeValueAsString(user)).append('\n');
+        }
+
         MvcResult mvcResult = mockMvc.perform(get("/v1/users")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andDo(MvcResult::getAsyncResult)
@@ -91,25 +272,111 @@ public class UserControllerTest {
                 .andReturn();
         String contentAsString = mvcResult.getResponse().getContentAsString();
 
-        assertThat(contentAsString).isEqualTo("""
-                {"id":1,"name":"test1","age":1}
-                {"id":2,"name":"test2","age":2}
-                {"id":3,"name":"test3","age":3}
-                {"id":4,"name":"test4","age":4}
-                {"id":5,"name":"test5","age":5}
-                {"id":6,"name":"test6","age":6}
-                {"id":7,"name":"test7","age":7}
-                {"id":8,"name":"test8","age":8}
-                {"id":9,"name":"test9","age":9}
-                {"id":10,"name":"test10","age":10}
-                {"id":11,"name":"test11","age":11}
-                {"id":12,"name":"test12","age":12}
-                {"id":13,"name":"test13","age":13}
-                {"id":14,"name":"test14","age":14}
-                {"id":15,"name":"test15","age":15}
-                {"id":16,"name":"test16","age":16}
-                {"id":17,"name":"test17","age":17}
-                {"id":18,"name":"test18","age":18}
-                """);
-    }
-}
\ No newline at end of file
+        // users are streamed in id order, so the ones created above come last
+        assertThat(contentAsString).endsWith(expected.toString());
+        assertThat(contentAsString.lines()).hasSize((int) userStore.size());
+    }
+
+    @Test
+    public void extractShouldStreamWithinDeadline() throws Exception {
+        for (int i = 1; i <= 600; i++) {
+            userStore.create(User.builder().name("test" + i).age(i).build());
+        }
+
+        MvcResult mvcResult = mockMvc.perform(get("/v1/users")
+                        .header(Deadline.HEADER, "60000"))
+                .andDo(MvcResult::getAsyncResult)
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertThat(mvcResult.getResponse().getContentAsString().lines()).hasSize((int) userStore.size());
+    }
+
+    @Test
+    public void extractShouldAnswerGatewayTimeoutWhenDeadlinePassed() throws Exception {
+        mockMvc.perform(get("/v1/users")
+                        .header(Deadline.HEADER, "-5"))
+                .andExpect(status().isGatewayTimeout())
+                .andExpect(jsonPath("$.code").value(504));
+    }
+
+    @Test
+    public void extractShouldStreamSmileFrames() throws Exception {
+        var created = userStore.create(User.builder().name("test").age(18).build());
+
+        var response = mockMvc.perform(get("/v1/users")
+                        .accept(SmileConfiguration.APPLICATION_SMILE))
+                .andDo(MvcResult::getAsyncResult)
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(SmileConfiguration.APPLICATION_SMILE))
+                .andReturn().getResponse();
+
+        var frameMapper = new ObjectMapper(SmileFactory.builder().disable(SmileParser.Feature.REQUIRE_HEADER).build());
+        var users = new ArrayList<User>();
+        var frames = ByteBuffer.wrap(response.getContentAsByteArray());
+        while (frames.hasRemaining()) {
+            int length = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = frames.get();
+                length |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    break;
+                }
+            }
+            users.add(frameMapper.readValue(frames.array(), frames.position(), length, User.class));
+            frames.position(frames.position() + length);
+        }
+        assertThat(users).hasSize((int) userStore.size()).last().isEqualTo(created);
+    }
+
+    @Test
+    public void extractShouldAnswerNotModifiedUntilStoreChanges() throws Exception {
+        userStore.create(User.builder().name("test").age(18).build());
+        var etag = mockMvc.perform(get("/v1/users"))
+                .andDo(MvcResult::getAsyncResult)
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues(HttpHeaders.ETAG, iterableWithSize(1)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/v1/users")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+
+        userStore.create(User.builder().name("late").build());
+
+        mockMvc.perform(get("/v1/users")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andDo(MvcResult::getAsyncResult)
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+    }
+
+    @Test
+    public void extractShouldCompressLargeExportsForAcceptingClients() throws Exception {
+        for (int i = 1; i <= 500; i++) {
+            userStore.create(User.builder().name("test" + i).age(i).build());
+        }
+        var plain = mockMvc.perform(get("/v1/users"))
+                .andDo(MvcResult::getAsyncResult)
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItems(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)))
+                .andReturn().getResponse();
+
+        var gzip = mockMvc.perform(get("/v1/users")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andDo(MvcResult::getAsyncResult)
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.ETAG, not(plain.getHeader(HttpHeaders.ETAG))))
+                .andReturn().getResponse();
+
+        var compressed = gzip.getContentAsByteArray();
+        assertThat(compressed.length).isLessThan(plain.getContentAsByteArray().length);
+        try (var inflated = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertThat(inflated.readAllBytes()).isEqualTo(plain.getContentAsByteArray());
+        }
+    }
+}
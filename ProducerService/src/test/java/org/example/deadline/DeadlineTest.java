@@ -0,0 +1,83 @@
+package org.example.deadline;
+
+import org.example.exception.DeadlineExceededException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DeadlineTest {
+    @Test
+    void checkShouldPassWithinBudget() {
+        var deadline = new Deadline(60_000);
+
+        deadline.check();
+
+        assertThat(deadline.expired()).isFalse();
+        assertThat(deadline.remainingNanos()).isPositive();
+    }
+
+    @Test
+    void hugeBudgetShouldNotOverflow() {
+        var deadline = new Deadline(Long.MAX_VALUE);
+
+        deadline.check();
+
+        assertThat(deadline.remainingNanos()).isGreaterThan(Long.MAX_VALUE / 2);
+    }
+
+    @Test
+    void checkShouldFailOnceBudgetIsSpent() {
+        var deadline = new Deadline(0);
+
+        assertThat(deadline.expired()).isTrue();
+        assertThatThrownBy(deadline::check).isInstanceOf(DeadlineExceededException.class);
+    }
+
+    @Test
+    void guardShouldPassEveryElementWithinBudget() {
+        var elements = new ArrayList<Integer>();
+
+        new Deadline(60_000).guard(range(1000)).forEachRemaining(elements::add);
+
+        assertThat(elements).hasSize(1000).startsWith(0, 1, 2).endsWith(999);
+    }
+
+    @Test
+    void guardShouldStopIterationOnceBudgetIsSpent() {
+        var guarded = new Deadline(0).guard(range(1000));
+        int read = 0;
+
+        try {
+            while (guarded.hasNext()) {
+                guarded.next();
+                read++;
+            }
+        } catch (DeadlineExceededException e) {
+            // expected
+        }
+
+        assertThat(read).isEqualTo(255);
+    }
+
+    @Test
+    void guardShouldNotCheckShortIterations() {
+        var elements = new ArrayList<Integer>();
+
+        new Deadline(0).guard(range(255)).forEachRemaining(elements::add);
+
+        assertThat(elements).hasSize(255);
+    }
+
+    private static Iterator<Integer> range(int size) {
+        var elements = new ArrayList<Integer>(size);
+        for (int i = 0; i < size; i++) {
+            elements.add(i);
+        }
+        return Collections.unmodifiableList(elements).iterator();
+    }
+}
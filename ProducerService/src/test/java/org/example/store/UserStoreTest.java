@@ -0,0 +1,123 @@
+package org.example.store;
+
+import org.example.config.UserStoreProperties;
+import org.example.data.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserStoreTest {
+    private final UserStore userStore = new UserStore(new UserStoreProperties(4, 4));
+
+    @Test
+    void createShouldAssignSequentialIds() {
+        var first = userStore.create(User.builder().name("first").age(1).build());
+        var second = userStore.create(User.builder().name("second").build());
+
+        assertThat(first).isEqualTo(new User(1L, "first", 1));
+        assertThat(second).isEqualTo(new User(2L, "second", null));
+        assertThat(userStore.find(2L)).isEqualTo(second);
+        assertThat(userStore.size()).isEqualTo(2);
+    }
+
+    @Test
+    void updateShouldOnlyApplyNonNullFields() {
+        var created = userStore.create(User.builder().name("test").age(18).build());
+
+        assertThat(userStore.update(User.builder().id(created.getId()).name("updated").build()))
+                .isEqualTo(new User(created.getId(), "updated", 18));
+        assertThat(userStore.update(User.builder().id(created.getId()).age(19).build()))
+                .isEqualTo(new User(created.getId(), "updated", 19));
+        assertThat(userStore.update(User.builder().id(Long.MAX_VALUE).name("missing").build())).isNull();
+        assertThat(userStore.update(User.builder().name("missing").build())).isNull();
+    }
+
+    @Test
+    void versionShouldGrowWithEveryUpdate() {
+        var created = userStore.create(User.builder().name("test").age(18).build());
+        var other = userStore.create(User.builder().name("other").build());
+
+        assertThat(userStore.findVersioned(created.getId())).isEqualTo(new VersionedUser(created, 0));
+        userStore.update(User.builder().id(created.getId()).name("updated").build());
+        userStore.update(User.builder().id(created.getId()).age(19).build());
+        userStore.delete(other.getId());
+
+        assertThat(userStore.findVersioned(created.getId()))
+                .isEqualTo(new VersionedUser(new User(created.getId(), "updated", 19), 2));
+        assertThat(userStore.findVersioned(other.getId())).isNull();
+    }
+
+    @Test
+    void deleteShouldKeepOtherUsersReachable() {
+        int count = 10_000;
+        for (int i = 0; i < count; i++) {
+            userStore.create(User.builder().name("test" + i).age(i).build());
+        }
+        for (long id = 1; id <= count; id += 2) {
+            assertThat(userStore.delete(id)).isTrue();
+        }
+
+        assertThat(userStore.delete(1L)).isFalse();
+        assertThat(userStore.size()).isEqualTo(count / 2);
+        for (long id = 1; id <= count; id++) {
+            var user = userStore.find(id);
+            if (id % 2 == 1) {
+                assertThat(user).isNull();
+            } else {
+                assertThat(user).isEqualTo(new User(id, "test" + (id - 1), (int) id - 1));
+            }
+        }
+    }
+
+    @Test
+    void cursorShouldWalkUsersInIdOrder() {
+        for (int i = 1; i <= 10; i++) {
+            userStore.create(User.builder().name("test" + i).age(i).build());
+        }
+        userStore.delete(1L);
+        userStore.delete(5L);
+        userStore.delete(10L);
+        var cursor = userStore.cursor();
+        userStore.create(User.builder().name("late").build());
+
+        var ids = new ArrayList<Long>();
+        cursor.forEachRemaining(user -> ids.add(user.getId()));
+
+        assertThat(ids).containsExactly(2L, 3L, 4L, 6L, 7L, 8L, 9L);
+    }
+
+    @Test
+    void concurrentCreatesShouldNeitherLoseNorDuplicateUsers() throws Exception {
+        int threads = 8;
+        int perThread = 20_000;
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            var futures = new ArrayList<Future<?>>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        var user = userStore.create(User.builder().name("test").age(i).build());
+                        ids.add(user.getId());
+                        assertThat(userStore.find(user.getId())).isEqualTo(user);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(ids).hasSize(threads * perThread);
+        assertThat(userStore.size()).isEqualTo(threads * perThread);
+    }
+}
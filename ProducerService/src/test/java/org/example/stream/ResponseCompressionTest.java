@@ -0,0 +1,115 @@
+package org.example.stream;
+
+import com.github.luben.zstd.ZstdInputStream;
+import org.example.config.CompressionProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCompressionTest {
+    private final ResponseCompression compression =
+            new ResponseCompression(new CompressionProperties(true, DataSize.ofBytes(64), 6, 3));
+
+    @Test
+    void negotiateShouldHonourQualityValues() {
+        assertThat(compression.negotiate(null)).isNull();
+        assertThat(compression.negotiate("identity")).isNull();
+        assertThat(compression.negotiate("gzip, deflate")).isEqualTo(ResponseCompression.GZIP);
+        assertThat(compression.negotiate("gzip, zstd")).isEqualTo(ResponseCompression.ZSTD);
+        assertThat(compression.negotiate("zstd;q=0.5, gzip")).isEqualTo(ResponseCompression.GZIP);
+        assertThat(compression.negotiate("zstd;q=0, *")).isEqualTo(ResponseCompression.GZIP);
+        assertThat(compression.negotiate("GZIP;q=0.8")).isEqualTo(ResponseCompression.GZIP);
+        assertThat(new ResponseCompression(new CompressionProperties(false, DataSize.ofBytes(64), 6, 3))
+                .negotiate("gzip")).isNull();
+    }
+
+    @Test
+    void compressShouldLeaveResponsesBelowThresholdUncompressed() throws IOException {
+        var compressed = new AtomicInteger();
+        var outputStream = new ByteArrayOutputStream();
+
+        try (var out = compression.compress(outputStream, ResponseCompression.GZIP, compressed::incrementAndGet)) {
+            out.write(bytes(8));
+            out.flush();
+            out.write(bytes(8));
+        }
+
+        assertThat(compressed).hasValue(0);
+        assertThat(outputStream.toByteArray()).isEqualTo((new String(bytes(8)) + new String(bytes(8))).getBytes());
+    }
+
+    @Test
+    void compressShouldRoundTripGzip() throws IOException {
+        var compressed = new AtomicInteger();
+        var outputStream = new ByteArrayOutputStream();
+        var expected = write(outputStream, ResponseCompression.GZIP, compressed);
+
+        assertThat(compressed).hasValue(1);
+        assertThat(outputStream.size()).isLessThan(expected.length);
+        assertThat(read(new GZIPInputStream(new ByteArrayInputStream(outputStream.toByteArray())))).isEqualTo(expected);
+    }
+
+    @Test
+    void compressShouldRoundTripZstd() throws IOException {
+        var compressed = new AtomicInteger();
+        var outputStream = new ByteArrayOutputStream();
+        var expected = write(outputStream, ResponseCompression.ZSTD, compressed);
+
+        assertThat(compressed).hasValue(1);
+        assertThat(outputStream.size()).isLessThan(expected.length);
+        assertThat(read(new ZstdInputStream(new ByteArrayInputStream(outputStream.toByteArray())))).isEqualTo(expected);
+    }
+
+    @Test
+    void flushShouldReachClientOnceCompressing() throws IOException {
+        var outputStream = new ByteArrayOutputStream();
+        var out = compression.compress(outputStream, ResponseCompression.GZIP, () -> {
+        });
+
+        out.write(bytes(1000));
+        out.flush();
+        int flushed = outputStream.size();
+        var inflated = new byte[1000];
+        new GZIPInputStream(new ByteArrayInputStream(outputStream.toByteArray())).readNBytes(inflated, 0, 1000);
+
+        assertThat(flushed).isPositive();
+        assertThat(inflated).isEqualTo(bytes(1000));
+    }
+
+    private byte[] write(ByteArrayOutputStream outputStream, String encoding, AtomicInteger compressed)
+            throws IOException {
+        var expected = new ByteArrayOutputStream();
+        try (var out = compression.compress(outputStream, encoding, compressed::incrementAndGet)) {
+            for (int i = 0; i < 200; i++) {
+                var line = ("{\"id\":" + i + ",\"name\":\"test" + i + "\",\"age\":18}\n")
+                        .getBytes(StandardCharsets.UTF_8);
+                out.write(line);
+                expected.write(line);
+            }
+        }
+        return expected.toByteArray();
+    }
+
+    private static byte[] read(InputStream inputStream) throws IOException {
+        try (inputStream) {
+            return inputStream.readAllBytes();
+        }
+    }
+
+    private static byte[] bytes(int length) {
+        var bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) ('a' + i % 26);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,116 @@
+package org.example.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.consumer.RecordingStream;
+import org.example.config.ExtractProperties;
+import org.example.config.SnapshotProperties;
+import org.example.config.UserStoreProperties;
+import org.example.data.User;
+import org.example.store.UserStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserSnapshotCacheTest {
+    private final UserStore userStore = new UserStore(new UserStoreProperties(4, 4));
+    private final UserNdjsonWriter userNdjsonWriter =
+            new UserNdjsonWriter(new ObjectMapper(), new ExtractProperties(1000, 65536));
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 1; i <= 100; i++) {
+            userStore.create(User.builder().name("test" + i).age(i).build());
+        }
+    }
+
+    @Test
+    void writeShouldServeSnapshotUntilStoreChanges() throws Exception {
+        var cache = cache(DataSize.ofBytes(16), DataSize.ofMegabytes(1));
+
+        assertThat(write(cache)).isEqualTo(encode());
+        assertThat(write(cache)).isEqualTo(encode());
+        assertThat(requests("hit")).isEqualTo(1);
+        assertThat(requests("miss")).isEqualTo(1);
+
+        userStore.update(User.builder().id(1L).name("updated").build());
+        userStore.delete(2L);
+
+        assertThat(write(cache)).isEqualTo(encode()).contains("\"updated\"");
+        assertThat(requests("miss")).isEqualTo(2);
+        assertThat(meterRegistry.get("user.snapshot.rebuild").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("user.snapshot.size").gauge().value()).isEqualTo(encode().length());
+    }
+
+    @Test
+    void writeShouldRefuseExportsLargerThanMaxSize() throws Exception {
+        var cache = cache(DataSize.ofBytes(16), DataSize.ofBytes(64));
+        var outputStream = new ByteArrayOutputStream();
+
+        assertThat(cache.write(outputStream)).isFalse();
+        assertThat(cache.write(outputStream)).isFalse();
+        assertThat(outputStream.size()).isZero();
+        assertThat(meterRegistry.get("user.snapshot.rebuild").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void writeShouldNotPinVirtualThreads() throws Exception {
+        var cache = cache(DataSize.ofBytes(16), DataSize.ofMegabytes(1));
+        var pinned = new AtomicInteger();
+        try (var recording = new RecordingStream()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO);
+            recording.onEvent("jdk.VirtualThreadPinned", event -> pinned.incrementAndGet());
+            recording.startAsync();
+            var outputStream = new ByteArrayOutputStream() {
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    // parks like a servlet stream waiting for a slow client
+                    LockSupport.parkNanos(Duration.ofMillis(1).toNanos());
+                    super.write(b, off, len);
+                }
+            };
+            Thread.ofVirtual().start(() -> {
+                try {
+                    cache.write(outputStream);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }).join();
+            recording.stop();
+
+            assertThat(outputStream.toString()).isEqualTo(encode());
+        }
+        assertThat(pinned).hasValue(0);
+    }
+
+    private UserSnapshotCache cache(DataSize initialSize, DataSize maxSize) {
+        return new UserSnapshotCache(userStore, userNdjsonWriter, new SnapshotProperties(true, initialSize, maxSize),
+                meterRegistry);
+    }
+
+    private String write(UserSnapshotCache cache) throws Exception {
+        var outputStream = new ByteArrayOutputStream();
+        assertThat(cache.write(outputStream)).isTrue();
+        return outputStream.toString();
+    }
+
+    private String encode() throws Exception {
+        var outputStream = new ByteArrayOutputStream();
+        userNdjsonWriter.write(userStore.cursor(), outputStream);
+        return outputStream.toString();
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("user.snapshot.requests").tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,28 @@
+package org.example.config;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import org.example.response.ResultResponse;
+import org.example.stream.ResultResponseSerializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfiguration {
+    @Bean
+    public Module resultResponseModule() {
+        return new SimpleModule("result-response").setSerializerModifier(new BeanSerializerModifier() {
+            @Override
+            public JsonSerializer<?> modifySerializer(SerializationConfig config, BeanDescription beanDesc,
+                                                      JsonSerializer<?> serializer) {
+                return ResultResponse.class.isAssignableFrom(beanDesc.getBeanClass())
+                        ? new ResultResponseSerializer(serializer)
+                        : serializer;
+            }
+        });
+    }
+}
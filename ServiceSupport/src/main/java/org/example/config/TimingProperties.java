@@ -0,0 +1,12 @@
+package org.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+@ConfigurationProperties(prefix = "server-timing")
+public record TimingProperties(@DefaultValue("true") boolean enabled,
+                               @DefaultValue("0.01") double sampleRate,
+                               @DefaultValue List<String> trustedAddresses) {
+}
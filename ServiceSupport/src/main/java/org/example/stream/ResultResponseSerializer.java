@@ -0,0 +1,81 @@
+package org.example.stream;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.json.JsonGeneratorImpl;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.ResolvableSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.example.response.ResultResponse;
+
+import java.io.IOException;
+
+public class ResultResponseSerializer extends StdSerializer<ResultResponse<?>>
+        implements ContextualSerializer, ResolvableSerializer {
+    public static final SerializableString SUCCESS_PREFIX =
+            new SerializedString("{\"success\":true,\"code\":200,\"msg\":\"Success\",\"data\":");
+    private static final Integer OK = 200;
+
+    private final JsonSerializer<Object> delegate;
+
+    @SuppressWarnings("unchecked")
+    public ResultResponseSerializer(JsonSerializer<?> delegate) {
+        super(ResultResponse.class, false);
+        this.delegate = (JsonSerializer<Object>) delegate;
+    }
+
+    @Override
+    public void serialize(ResultResponse<?> value, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+        if (!writesPreEncoded(value, generator, provider)) {
+            delegate.serialize(value, generator, provider);
+            return;
+        }
+        // raw writes bypass the generator's context, which is why only top-level envelopes take this path
+        generator.writeRaw(SUCCESS_PREFIX);
+        provider.defaultSerializeValue(value.getData(), generator);
+        generator.writeRaw('}');
+    }
+
+    @Override
+    public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property)
+            throws JsonMappingException {
+        if (delegate instanceof ContextualSerializer contextual) {
+            var contextualized = contextual.createContextual(provider, property);
+            return contextualized == delegate ? this : new ResultResponseSerializer(contextualized);
+        }
+        return this;
+    }
+
+    @Override
+    public void resolve(SerializerProvider provider) throws JsonMappingException {
+        if (delegate instanceof ResolvableSerializer resolvable) {
+            resolvable.resolve(provider);
+        }
+    }
+
+    private static boolean writesPreEncoded(ResultResponse<?> value, JsonGenerator generator,
+                                            SerializerProvider provider) {
+        return value.getData() != null
+                && Boolean.TRUE.equals(value.getSuccess())
+                && OK.equals(value.getCode())
+                && "Success".equals(value.getMsg())
+                && generator instanceof JsonGeneratorImpl
+                && generator.getOutputContext().inRoot()
+                && generator.getPrettyPrinter() == null
+                && !provider.isEnabled(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+                && includesNulls(provider.getConfig().getDefaultPropertyInclusion(ResultResponse.class));
+    }
+
+    private static boolean includesNulls(JsonInclude.Value inclusion) {
+        var valueInclusion = inclusion.getValueInclusion();
+        return valueInclusion == JsonInclude.Include.USE_DEFAULTS || valueInclusion == JsonInclude.Include.ALWAYS;
+    }
+}
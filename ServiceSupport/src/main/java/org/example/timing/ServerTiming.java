@@ -0,0 +1,125 @@
+package org.example.timing;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stage durations of one request, reported in {@code Server-Timing}.
+ */
+public final class ServerTiming {
+    public static final String HEADER = "Server-Timing";
+    // the caller's sampling decision, 1 or 0, followed for trusted callers only; see ServerTimingFilter
+    public static final String SAMPLED_HEADER = "Server-Timing-Sampled";
+    static final String ATTRIBUTE = ServerTiming.class.getName();
+
+    private final long start = System.nanoTime();
+    private final boolean trusted;
+    private String[] names = new String[4];
+    private long[] durations = new long[4];
+    private int size;
+    private List<String> upstream;
+    private long encodeStart;
+
+    ServerTiming(boolean trusted) {
+        this.trusted = trusted;
+    }
+
+    public static ServerTiming current() {
+        var attributes = RequestContextHolder.getRequestAttributes();
+        return attributes == null
+                ? null
+                : (ServerTiming) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    static ServerTiming of(HttpServletRequest request) {
+        return (ServerTiming) request.getAttribute(ATTRIBUTE);
+    }
+
+    public void record(String name, long startNanos) {
+        add(name, System.nanoTime() - startNanos);
+    }
+
+    public synchronized void add(String name, long nanos) {
+        for (int i = 0; i < size; i++) {
+            if (names[i].equals(name)) {
+                durations[i] += nanos;
+                return;
+            }
+        }
+        if (size == names.length) {
+            names = Arrays.copyOf(names, size << 1);
+            durations = Arrays.copyOf(durations, size << 1);
+        }
+        names[size] = name;
+        durations[size++] = nanos;
+    }
+
+    public boolean trusted() {
+        return trusted;
+    }
+
+    public synchronized void merge(String prefix, Collection<String> values) {
+        if (!trusted) {
+            return;
+        }
+        for (String value : values) {
+            for (String metric : value.split(",")) {
+                metric = metric.trim();
+                if (!metric.isEmpty()) {
+                    if (upstream == null) {
+                        upstream = new ArrayList<>();
+                    }
+                    upstream.add(prefix + metric);
+                }
+            }
+        }
+    }
+
+    synchronized String header() {
+        var header = new StringBuilder(size * 24);
+        for (int i = 0; i < size; i++) {
+            append(header, names[i], durations[i]);
+        }
+        if (upstream != null) {
+            for (String metric : upstream) {
+                header.append(header.isEmpty() ? "" : ", ").append(metric);
+            }
+        }
+        return header.toString();
+    }
+
+    synchronized void encodeStarted() {
+        record("handler", start);
+        encodeStart = System.nanoTime();
+    }
+
+    synchronized Map<String, String> trailer() {
+        long now = System.nanoTime();
+        var trailer = new StringBuilder(header());
+        if (encodeStart != 0) {
+            append(trailer, "encode", now - encodeStart);
+        }
+        append(trailer, "total", now - start);
+        return Map.of(HEADER, trailer.toString());
+    }
+
+    private static void append(StringBuilder header, String name, long nanos) {
+        if (!header.isEmpty()) {
+            header.append(", ");
+        }
+        long micros = nanos / 1000;
+        header.append(name).append(";dur=").append(micros / 1000).append('.');
+        long fraction = micros % 1000;
+        if (fraction < 100) {
+            header.append(fraction < 10 ? "00" : "0");
+        }
+        header.append(fraction);
+    }
+}
@@ -0,0 +1,104 @@
+package org.example.timing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.config.TimingProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Component
+public class ServerTimingFilter extends OncePerRequestFilter {
+    private final boolean enabled;
+    private final double sampleRate;
+    private final List<AddressBlock> trustedAddresses;
+
+    public ServerTimingFilter(TimingProperties properties) {
+        this.enabled = properties.enabled();
+        this.sampleRate = properties.sampleRate();
+        this.trustedAddresses = properties.trustedAddresses().stream().map(AddressBlock::parse).toList();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean trusted = trusted(request);
+        if (enabled && sampled(request, trusted)) {
+            var timing = new ServerTiming(trusted);
+            request.setAttribute(ServerTiming.ATTRIBUTE, timing);
+            try {
+                response.setTrailerFields(timing::trailer);
+            } catch (IllegalStateException e) {
+                // HTTP/1.0 has no trailers, the header still goes out
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private boolean sampled(HttpServletRequest request, boolean trusted) {
+        var sampled = trusted ? request.getHeader(ServerTiming.SAMPLED_HEADER) : null;
+        if (sampled != null) {
+            return sampled.trim().equals("1");
+        }
+        return sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    private boolean trusted(HttpServletRequest request) {
+        if (trustedAddresses.isEmpty()) {
+            return false;
+        }
+        byte[] address;
+        try {
+            address = literal(request.getRemoteAddr());
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return trustedAddresses.stream().anyMatch(block -> block.contains(address));
+    }
+
+    // only literals go to InetAddress, which would look a host name up
+    private static byte[] literal(String address) {
+        if (address == null || address.isEmpty()
+                || !address.chars().allMatch(c -> c == '.' || c == ':' || Character.digit(c, 16) >= 0)) {
+            throw new IllegalArgumentException("Not an IP address: " + address);
+        }
+        try {
+            return InetAddress.getByName(address).getAddress();
+        } catch (UnknownHostException e) {
+            throw new IllegalArgumentException("Not an IP address: " + address, e);
+        }
+    }
+
+    private record AddressBlock(byte[] network, int prefixLength) {
+        static AddressBlock parse(String block) {
+            int slash = block.indexOf('/');
+            var address = literal(slash < 0 ? block.trim() : block.substring(0, slash).trim());
+            int prefixLength = slash < 0 ? address.length * 8 : Integer.parseInt(block.substring(slash + 1).trim());
+            if (prefixLength < 0 || prefixLength > address.length * 8) {
+                throw new IllegalArgumentException("Invalid prefix length in " + block);
+            }
+            return new AddressBlock(address, prefixLength);
+        }
+
+        boolean contains(byte[] address) {
+            if (address.length != network.length) {
+                return false;
+            }
+            int bytes = prefixLength / 8;
+            for (int i = 0; i < bytes; i++) {
+                if (address[i] != network[i]) {
+                    return false;
+                }
+            }
+            int bits = prefixLength % 8;
+            return bits == 0 || ((address[bytes] ^ network[bytes]) & (0xFF00 >> bits)) == 0;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package org.example.stream;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.example.config.JacksonConfiguration;
+import org.example.data.User;
+import org.example.response.ResultResponse;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ResultResponseSerializerTest {
+    private final ObjectMapper plain = new ObjectMapper();
+    private final ObjectMapper objectMapper =
+            new ObjectMapper().registerModule(new JacksonConfiguration().resultResponseModule());
+
+    @Test
+    void serializeShouldMatchBeanSerializer() throws Exception {
+        var user = new User(1L, "test", 18);
+        for (var value : List.of(
+                ResultResponse.success(user),
+                ResultResponse.success("Success", "text"),
+                ResultResponse.success("Created", user),
+                ResultResponse.success(),
+                ResultResponse.ok(),
+                ResultResponse.fail(404, "User not found, id: 1"),
+                ResultResponse.success(List.of(ResultResponse.success(user), ResultResponse.fail("failed"))))) {
+            var expected = plain.writeValueAsString(value);
+
+            assertThat(objectMapper.writeValueAsString(value)).isEqualTo(expected);
+            assertThat(new String(objectMapper.writeValueAsBytes(value), StandardCharsets.UTF_8)).isEqualTo(expected);
+            assertThat(objectMapper.writeValueAsString(List.of(value, value)))
+                    .isEqualTo(plain.writeValueAsString(List.of(value, value)));
+        }
+    }
+
+    @Test
+    void serializeShouldLeavePrettyPrintingAndSmileToBeanSerializer() throws Exception {
+        var value = ResultResponse.success(new User(1L, "test", 18));
+
+        assertThat(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(value))
+                .isEqualTo(plain.writerWithDefaultPrettyPrinter().writeValueAsString(value));
+        assertThat(objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT).writeValueAsString(value))
+                .isEqualTo(plain.writerWithDefaultPrettyPrinter().writeValueAsString(value));
+
+        var smileMapper = new ObjectMapper(new SmileFactory())
+                .registerModule(new JacksonConfiguration().resultResponseModule());
+        ResultResponse<User> decoded = smileMapper.readValue(smileMapper.writeValueAsBytes(value),
+                new TypeReference<>() {
+                });
+        assertThat(decoded).isEqualTo(value);
+    }
+
+    @Test
+    void okShouldBeSharedAndImmutable() {
+        ResultResponse<Void> ok = ResultResponse.ok();
+
+        assertThat(ok).isSameAs(ResultResponse.ok())
+                .isEqualTo(new ResultResponse<>(true, 200, "Success", null));
+        assertThatThrownBy(() -> ok.setMsg("changed")).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void successShouldBeAFreshMutableEnvelope() {
+        ResultResponse<String> success = ResultResponse.success();
+        success.setData("changed");
+
+        assertThat(success).isNotSameAs(ResultResponse.success());
+        assertThat(ResultResponse.success()).isEqualTo(ResultResponse.ok());
+    }
+}
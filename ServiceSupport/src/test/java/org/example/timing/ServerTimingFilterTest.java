@@ -0,0 +1,65 @@
+package org.example.timing;
+
+import org.example.config.TimingProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ServerTimingFilterTest {
+    private final ServerTimingFilter filter =
+            new ServerTimingFilter(new TimingProperties(true, 0, List.of("10.0.0.0/8", "::1", "192.168.1.7")));
+
+    @Test
+    void trustedCallersShouldDecideSampling() throws Exception {
+        var timing = filter("10.1.2.3", "1");
+
+        assertThat(timing).isNotNull();
+        assertThat(timing.trusted()).isTrue();
+        assertThat(filter("0:0:0:0:0:0:0:1", "1")).isNotNull();
+        assertThat(filter("192.168.1.7", "1")).isNotNull();
+        assertThat(filter("10.1.2.3", "0")).isNull();
+    }
+
+    @Test
+    void untrustedCallersShouldBeSampledAtTheRate() throws Exception {
+        assertThat(filter("11.1.2.3", "1")).isNull();
+        assertThat(filter("192.168.1.8", "1")).isNull();
+        assertThat(filter("203.0.113.9", null)).isNull();
+
+        var sampleAll = new ServerTimingFilter(new TimingProperties(true, 1.0, List.of()));
+        var request = request("10.1.2.3", "0");
+        sampleAll.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        var timing = ServerTiming.of(request);
+        assertThat(timing).isNotNull();
+        assertThat(timing.trusted()).isFalse();
+    }
+
+    @Test
+    void invalidTrustedAddressesShouldFailAtStartup() {
+        assertThatThrownBy(() -> new ServerTimingFilter(new TimingProperties(true, 0, List.of("10.0.0.0/33"))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ServerTimingFilter(new TimingProperties(true, 0, List.of("consumer.local"))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private ServerTiming filter(String remoteAddress, String sampled) throws Exception {
+        var request = request(remoteAddress, sampled);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return ServerTiming.of(request);
+    }
+
+    private static MockHttpServletRequest request(String remoteAddress, String sampled) {
+        var request = new MockHttpServletRequest("GET", "/v1/user");
+        request.setRemoteAddr(remoteAddress);
+        if (sampled != null) {
+            request.addHeader(ServerTiming.SAMPLED_HEADER, sampled);
+        }
+        return request;
+    }
+}
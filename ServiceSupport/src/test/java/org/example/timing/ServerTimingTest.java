@@ -0,0 +1,71 @@
+package org.example.timing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ServerTimingTest {
+    @Test
+    void recordShouldAddUpStagesWithTheSameName() {
+        var timing = new ServerTiming(true);
+
+        timing.record("serialize", System.nanoTime() - 1_500_000);
+        timing.record("serialize", System.nanoTime() - 1_000_000);
+        timing.record("snapshot", System.nanoTime() - 7_000);
+
+        var header = timing.header();
+        assertThat(header).matches("serialize;dur=\\d+\\.\\d{3}, snapshot;dur=\\d+\\.\\d{3}");
+        assertThat(Double.parseDouble(header.substring("serialize;dur=".length(), header.indexOf(','))))
+                .isGreaterThanOrEqualTo(2.5);
+    }
+
+    @Test
+    void addShouldAddUpStagesWithTheSameName() {
+        var timing = new ServerTiming(true);
+
+        timing.add("transfer", 1_500_000);
+        timing.add("transfer", 1_000_000);
+        timing.record("decode", System.nanoTime() - 7_000);
+
+        assertThat(timing.header()).matches("transfer;dur=2\\.500, decode;dur=\\d+\\.\\d{3}");
+    }
+
+    @Test
+    void mergeShouldPrefixUpstreamMetrics() {
+        var timing = new ServerTiming(true);
+
+        timing.add("upstream", 3_000_000);
+        timing.merge("user-service.", List.of("handler;dur=1.250, snapshot;dur=0.042", "db;desc=\"users\""));
+
+        assertThat(timing.header()).isEqualTo("upstream;dur=3.000, user-service.handler;dur=1.250, "
+                + "user-service.snapshot;dur=0.042, user-service.db;desc=\"users\"");
+    }
+
+    @Test
+    void mergeShouldSkipUpstreamMetricsForUntrustedCallers() {
+        var timing = new ServerTiming(false);
+
+        timing.add("upstream", 3_000_000);
+        timing.merge("user-service.", List.of("handler;dur=1.250"));
+
+        assertThat(timing.header()).isEqualTo("upstream;dur=3.000");
+    }
+
+    @Test
+    void trailerShouldAddEncodeAndTotal() {
+        var timing = new ServerTiming(true);
+
+        timing.encodeStarted();
+
+        assertThat(timing.header()).matches("handler;dur=\\d+\\.\\d{3}");
+        assertThat(timing.trailer().get(ServerTiming.HEADER))
+                .matches("handler;dur=\\d+\\.\\d{3}, encode;dur=\\d+\\.\\d{3}, total;dur=\\d+\\.\\d{3}");
+    }
+
+    @Test
+    void trailerShouldOnlyHaveTotalWithoutStages() {
+        assertThat(new ServerTiming(true).trailer().get(ServerTiming.HEADER)).matches("total;dur=\\d+\\.\\d{3}");
+    }
+}